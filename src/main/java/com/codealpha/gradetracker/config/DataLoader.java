@@ -376,8 +376,6 @@ public class DataLoader {
                 }
                 
                 Grade grade = Grade.builder()
-                        .student(student)
-                        .course(course)
                         .studentId(student.getId())
                         .courseId(course.getId())
                         .numericScore(Math.round(score * 100.0) / 100.0)
@@ -0,0 +1,39 @@
+package com.codealpha.gradetracker.config;
+
+import com.codealpha.gradetracker.util.FieldSelection;
+import com.codealpha.gradetracker.util.SelectableFields;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Serializes only the properties named in a request's {@code fields} parameter, for handlers
+ * marked {@link SelectableFields}. Those handlers have already rejected unknown names, so the
+ * raw parameter is safe to apply; everywhere else it is ignored.
+ */
+@RestControllerAdvice
+public class FieldSelectionResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(SelectableFields.class) && super.supports(returnType, converterType);
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            String fields = servletRequest.getServletRequest().getParameter(FieldSelection.PARAMETER);
+            if (fields != null) {
+                bodyContainer.setFilters(FieldSelection.filters(fields));
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.codealpha.gradetracker.config;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves existing data to the id-referenced model: drops the embedded {@code grades} DBRef arrays
+ * from students and courses, and replaces the {@code student}/{@code course} DBRefs on grades
+ * with the plain {@code studentId}/{@code courseId} fields. Safe to run on every startup; once
+ * migrated, both steps match no documents.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class GradeReferenceMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Bean
+    @Order(3)
+    public CommandLineRunner migrateGradeReferences() {
+        return args -> {
+            for (String collection : List.of("students", "courses")) {
+                long updated = mongoTemplate.getCollection(collection)
+                        .updateMany(Filters.exists("grades"), Updates.unset("grades"))
+                        .getModifiedCount();
+                if (updated > 0) {
+                    log.info("Removed grade reference arrays from {} {}", updated, collection);
+                }
+            }
+
+            long migrated = migrateGrades(mongoTemplate.getCollection("grades"));
+            if (migrated > 0) {
+                log.info("Replaced student and course DBRefs on {} grades", migrated);
+            }
+        };
+    }
+
+    private long migrateGrades(MongoCollection<Document> grades) {
+        Bson legacy = Filters.or(Filters.exists("student"), Filters.exists("course"));
+        List<WriteModel<Document>> batch = new ArrayList<>(BATCH_SIZE);
+        long migrated = 0;
+
+        try (MongoCursor<Document> cursor = grades.find(legacy)
+                .projection(new Document("student", 1).append("course", 1)
+                        .append("studentId", 1).append("courseId", 1))
+                .batchSize(BATCH_SIZE)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document grade = cursor.next();
+                List<Bson> updates = new ArrayList<>(List.of(Updates.unset("student"), Updates.unset("course")));
+                // Ids written alongside the DBRefs win; the DBRef only fills in a missing one
+                if (grade.get("studentId") == null && grade.get("student") instanceof DBRef student) {
+                    updates.add(Updates.set("studentId", student.getId().toString()));
+                }
+                if (grade.get("courseId") == null && grade.get("course") instanceof DBRef course) {
+                    updates.add(Updates.set("courseId", course.getId().toString()));
+                }
+                batch.add(new UpdateOneModel<>(Filters.eq("_id", grade.get("_id")), Updates.combine(updates)));
+
+                if (batch.size() == BATCH_SIZE) {
+                    migrated += grades.bulkWrite(batch).getModifiedCount();
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            migrated += grades.bulkWrite(batch).getModifiedCount();
+        }
+        return migrated;
+    }
+}
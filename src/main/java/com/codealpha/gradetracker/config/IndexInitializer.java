@@ -0,0 +1,53 @@
+package com.codealpha.gradetracker.config;
+
+import com.codealpha.gradetracker.model.Grade;
+import com.codealpha.gradetracker.model.GradeRollup;
+import com.codealpha.gradetracker.model.Student;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+/**
+ * Creates the indexes that query paths depend on. Automatic index creation from mapping
+ * annotations is off, so these are ensured explicitly; creating an existing index is a no-op.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class IndexInitializer {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Bean
+    @Order(4)
+    public CommandLineRunner ensureIndexes() {
+        return args -> {
+            // Keyset pagination: every supported sort ends in _id so pages are index range scans
+            mongoTemplate.indexOps(Student.class).ensureIndex(new Index()
+                    .on("lastName", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named("lastName_id"));
+            mongoTemplate.indexOps(Student.class).ensureIndex(new Index()
+                    .on("email", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named("email_id"));
+            mongoTemplate.indexOps(Grade.class).ensureIndex(new Index()
+                    .on("studentId", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named("studentId_id"));
+            mongoTemplate.indexOps(Grade.class).ensureIndex(new Index()
+                    .on("studentId", Sort.Direction.ASC).on("gradeDate", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC).named("studentId_gradeDate_id"));
+            mongoTemplate.indexOps(Grade.class).ensureIndex(new Index()
+                    .on("studentId", Sort.Direction.ASC).on("numericScore", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC).named("studentId_numericScore_id"));
+
+            // Date-range statistics
+            mongoTemplate.indexOps(GradeRollup.class).ensureIndex(new Index()
+                    .on("granularity", Sort.Direction.ASC).on("bucketStart", Sort.Direction.ASC)
+                    .on("courseId", Sort.Direction.ASC).named("granularity_bucket_course"));
+
+            log.info("Ensured query indexes");
+        };
+    }
+}
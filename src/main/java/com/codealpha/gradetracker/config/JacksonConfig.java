@@ -0,0 +1,16 @@
+package com.codealpha.gradetracker.config;
+
+import com.codealpha.gradetracker.util.FieldSelection;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    // DTOs carry a field-selection filter; anything not filtered per request serializes in full
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionFilters() {
+        return builder -> builder.filters(FieldSelection.serializeAll());
+    }
+}
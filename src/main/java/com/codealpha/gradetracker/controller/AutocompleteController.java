@@ -0,0 +1,32 @@
+package com.codealpha.gradetracker.controller;
+
+import com.codealpha.gradetracker.dto.SuggestionDTO;
+import com.codealpha.gradetracker.service.AutocompleteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/autocomplete")
+@RequiredArgsConstructor
+@Tag(name = "Autocomplete", description = "Typeahead suggestions for students and courses")
+@SecurityRequirement(name = "bearer-jwt")
+public class AutocompleteController {
+
+    private final AutocompleteService autocompleteService;
+
+    @GetMapping
+    @Operation(summary = "Get suggestions",
+            description = "Students and courses whose name, email, enrollment ID or code starts with q; type may be STUDENT or COURSE")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(autocompleteService.suggest(q, type, limit));
+    }
+}
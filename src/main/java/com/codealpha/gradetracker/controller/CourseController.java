@@ -1,16 +1,22 @@
 package com.codealpha.gradetracker.controller;
 
+import com.codealpha.gradetracker.dto.BatchRequest;
 import com.codealpha.gradetracker.dto.CourseDTO;
 import com.codealpha.gradetracker.service.CourseService;
+import com.codealpha.gradetracker.util.NdjsonWriter;
+import com.codealpha.gradetracker.util.SelectableFields;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,11 +28,27 @@ import java.util.List;
 public class CourseController {
 
     private final CourseService courseService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    @Operation(summary = "Get all courses")
-    public ResponseEntity<List<CourseDTO>> getAllCourses() {
-        return ResponseEntity.ok(courseService.getAllCourses());
+    @SelectableFields
+    @Operation(summary = "Get all courses", description = "Optionally only the comma-separated properties in fields")
+    public ResponseEntity<List<CourseDTO>> getAllCourses(@RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(courseService.getAllCourses(fields));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all courses", description = "One course per line")
+    public ResponseEntity<StreamingResponseBody> streamAllCourses() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonWriter.body(objectMapper, courseService.streamAllCourses()));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get courses by IDs", description = "Up to " + BatchRequest.MAX_IDS + " courses in request order; unknown IDs are left out")
+    public ResponseEntity<List<CourseDTO>> getCoursesByIds(@Valid @RequestBody BatchRequest request) {
+        return ResponseEntity.ok(courseService.getCoursesByIds(request.getIds()));
     }
 
     @GetMapping("/{id}")
@@ -35,6 +57,14 @@ public class CourseController {
         return ResponseEntity.ok(courseService.getCourseById(id));
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search courses", description = "Search courses by name or code, best matches first")
+    public ResponseEntity<List<CourseDTO>> searchCourses(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(courseService.searchCourses(query, limit));
+    }
+
     @GetMapping("/code/{code}")
     @Operation(summary = "Get course by code")
     public ResponseEntity<CourseDTO> getCourseByCode(@PathVariable String code) {
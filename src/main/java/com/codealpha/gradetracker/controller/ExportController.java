@@ -1,16 +1,25 @@
 package com.codealpha.gradetracker.controller;
 
+import com.codealpha.gradetracker.dto.ExportJobDTO;
+import com.codealpha.gradetracker.dto.ExportJobRequest;
+import com.codealpha.gradetracker.service.ExportJobService;
 import com.codealpha.gradetracker.service.ExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.net.URI;
+import java.security.Principal;
 
 @RestController
 @RequestMapping("/api/export")
@@ -20,11 +29,12 @@ import java.io.IOException;
 public class ExportController {
 
     private final ExportService exportService;
+    private final ExportJobService exportJobService;
 
     @GetMapping("/students/csv")
     @Operation(summary = "Export students to CSV")
-    public ResponseEntity<String> exportStudentsToCSV() throws IOException {
-        String csv = exportService.exportStudentsToCSV();
+    public ResponseEntity<StreamingResponseBody> exportStudentsToCSV() {
+        StreamingResponseBody csv = exportService.exportStudentsToCSV();
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType("text/csv"));
@@ -37,8 +47,8 @@ public class ExportController {
 
     @GetMapping("/grades/csv")
     @Operation(summary = "Export all grades to CSV")
-    public ResponseEntity<String> exportGradesToCSV() throws IOException {
-        String csv = exportService.exportGradesToCSV();
+    public ResponseEntity<StreamingResponseBody> exportGradesToCSV() {
+        StreamingResponseBody csv = exportService.exportGradesToCSV();
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType("text/csv"));
@@ -51,8 +61,8 @@ public class ExportController {
 
     @GetMapping("/student/{studentId}/csv")
     @Operation(summary = "Export student grades to CSV")
-    public ResponseEntity<String> exportStudentGradesToCSV(@PathVariable String studentId) throws IOException {
-        String csv = exportService.exportStudentGradesToCSV(studentId);
+    public ResponseEntity<StreamingResponseBody> exportStudentGradesToCSV(@PathVariable String studentId) {
+        StreamingResponseBody csv = exportService.exportStudentGradesToCSV(studentId);
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType("text/csv"));
@@ -65,8 +75,8 @@ public class ExportController {
 
     @GetMapping("/grades/pdf")
     @Operation(summary = "Export all grades to PDF")
-    public ResponseEntity<byte[]> exportGradesToPDF() throws IOException {
-        byte[] pdf = exportService.exportGradesToPDF();
+    public ResponseEntity<StreamingResponseBody> exportGradesToPDF() {
+        StreamingResponseBody pdf = exportService.exportGradesToPDF();
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
@@ -90,4 +100,49 @@ public class ExportController {
                 .headers(headers)
                 .body(pdf);
     }
+
+    @GetMapping("/report-cards")
+    @Operation(summary = "Export a PDF report card for every student as one ZIP")
+    public ResponseEntity<StreamingResponseBody> exportReportCards() {
+        StreamingResponseBody zip = exportService.exportReportCards();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=report_cards.zip");
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(zip);
+    }
+
+    @PostMapping("/jobs")
+    @Operation(summary = "Start an export job", description = "Runs the export in the background; poll the job and download the file when it completes")
+    public ResponseEntity<ExportJobDTO> createExportJob(@Valid @RequestBody ExportJobRequest request, Principal principal) {
+        ExportJobDTO job = exportJobService.submit(request, principal.getName());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/export/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get export job status and progress")
+    public ResponseEntity<ExportJobDTO> getExportJob(@PathVariable String jobId, Principal principal) {
+        return ResponseEntity.ok(exportJobService.getJob(jobId, principal.getName()));
+    }
+
+    @GetMapping("/jobs/{jobId}/download")
+    @Operation(summary = "Download a completed export", description = "Supports Range requests for resuming large downloads")
+    public ResponseEntity<Resource> downloadExportJob(@PathVariable String jobId, Principal principal) {
+        ExportJobService.Artifact artifact = exportJobService.getArtifact(jobId, principal.getName());
+
+        // Range headers are applied by Spring MVC for Resource bodies
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(artifact.contentType()));
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + artifact.fileName());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(new FileSystemResource(artifact.path()));
+    }
 }
@@ -1,7 +1,12 @@
 package com.codealpha.gradetracker.controller;
 
+import com.codealpha.gradetracker.dto.BatchRequest;
+import com.codealpha.gradetracker.dto.CursorPageDTO;
 import com.codealpha.gradetracker.dto.GradeDTO;
 import com.codealpha.gradetracker.service.GradeService;
+import com.codealpha.gradetracker.util.NdjsonWriter;
+import com.codealpha.gradetracker.util.SelectableFields;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,9 +16,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -25,11 +32,27 @@ import java.util.List;
 public class GradeController {
 
     private final GradeService gradeService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    @Operation(summary = "Get all grades")
-    public ResponseEntity<List<GradeDTO>> getAllGrades() {
-        return ResponseEntity.ok(gradeService.getAllGrades());
+    @SelectableFields
+    @Operation(summary = "Get all grades", description = "Optionally only the comma-separated properties in fields")
+    public ResponseEntity<List<GradeDTO>> getAllGrades(@RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(gradeService.getAllGrades(fields));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all grades", description = "One grade per line, written while the grades are read")
+    public ResponseEntity<StreamingResponseBody> streamAllGrades() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonWriter.body(objectMapper, gradeService.streamAllGrades()));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get grades by IDs", description = "Up to " + BatchRequest.MAX_IDS + " grades in request order; unknown IDs are left out")
+    public ResponseEntity<List<GradeDTO>> getGradesByIds(@Valid @RequestBody BatchRequest request) {
+        return ResponseEntity.ok(gradeService.getGradesByIds(request.getIds()));
     }
 
     @GetMapping("/{id}")
@@ -39,9 +62,12 @@ public class GradeController {
     }
 
     @GetMapping("/student/{studentId}")
-    @Operation(summary = "Get grades by student ID")
-    public ResponseEntity<List<GradeDTO>> getGradesByStudentId(@PathVariable String studentId) {
-        return ResponseEntity.ok(gradeService.getGradesByStudentId(studentId));
+    @SelectableFields
+    @Operation(summary = "Get grades by student ID", description = "Optionally only the comma-separated properties in fields")
+    public ResponseEntity<List<GradeDTO>> getGradesByStudentId(
+            @PathVariable String studentId,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(gradeService.getGradesByStudentId(studentId, fields));
     }
 
     @GetMapping("/student/{studentId}/paginated")
@@ -55,10 +81,34 @@ public class GradeController {
         return ResponseEntity.ok(gradeService.getGradesByStudentId(studentId, pageable));
     }
 
+    @GetMapping("/student/{studentId}/cursor")
+    @Operation(summary = "Get grades by student ID by cursor",
+            description = "Keyset pagination sorted by gradeDate, numericScore or id; pass nextCursor back to get the following page")
+    public ResponseEntity<CursorPageDTO<GradeDTO>> getGradesByStudentIdCursor(
+            @PathVariable String studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "gradeDate") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(gradeService.getGradesByStudentIdAfter(studentId, cursor, size, sortBy, sortDir, includeTotal));
+    }
+
     @GetMapping("/course/{courseId}")
-    @Operation(summary = "Get grades by course ID")
-    public ResponseEntity<List<GradeDTO>> getGradesByCourseId(@PathVariable String courseId) {
-        return ResponseEntity.ok(gradeService.getGradesByCourseId(courseId));
+    @SelectableFields
+    @Operation(summary = "Get grades by course ID", description = "Optionally only the comma-separated properties in fields")
+    public ResponseEntity<List<GradeDTO>> getGradesByCourseId(
+            @PathVariable String courseId,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(gradeService.getGradesByCourseId(courseId, fields));
+    }
+
+    @GetMapping(value = "/course/{courseId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream grades by course ID", description = "One grade per line, written while the grades are read")
+    public ResponseEntity<StreamingResponseBody> streamGradesByCourseId(@PathVariable String courseId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonWriter.body(objectMapper, gradeService.streamGradesByCourseId(courseId)));
     }
 
     @PostMapping
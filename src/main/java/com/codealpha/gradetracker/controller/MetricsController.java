@@ -0,0 +1,39 @@
+package com.codealpha.gradetracker.controller;
+
+import com.codealpha.gradetracker.service.RequestCoalescer;
+import com.codealpha.gradetracker.service.StudentSummaryCache;
+import com.codealpha.gradetracker.util.LruCache;
+import com.codealpha.gradetracker.util.SingleFlight;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/metrics")
+@RequiredArgsConstructor
+@Tag(name = "Metrics", description = "Internal performance metrics (Admin only)")
+@SecurityRequirement(name = "bearer-jwt")
+public class MetricsController {
+
+    private final RequestCoalescer requestCoalescer;
+    private final StudentSummaryCache studentSummaryCache;
+
+    @GetMapping("/coalescing")
+    @Operation(summary = "Get request coalescing metrics", description = "Calls, executions, coalesced calls, fresh hits and retained results per operation")
+    public ResponseEntity<Map<String, SingleFlight.Stats>> getCoalescingMetrics() {
+        return ResponseEntity.ok(requestCoalescer.getStats());
+    }
+
+    @GetMapping("/student-cache")
+    @Operation(summary = "Get student summary cache metrics", description = "Size, hit ratio, evictions and average batch load time")
+    public ResponseEntity<LruCache.Stats> getStudentCacheMetrics() {
+        return ResponseEntity.ok(studentSummaryCache.getStats());
+    }
+}
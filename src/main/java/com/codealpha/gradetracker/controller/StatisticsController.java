@@ -1,14 +1,21 @@
 package com.codealpha.gradetracker.controller;
 
+import com.codealpha.gradetracker.dto.LeaderboardDTO;
+import com.codealpha.gradetracker.dto.PercentileRankDTO;
+import com.codealpha.gradetracker.dto.RangeStatisticsDTO;
+import com.codealpha.gradetracker.dto.ScoreHistogramDTO;
 import com.codealpha.gradetracker.dto.StatisticsDTO;
+import com.codealpha.gradetracker.model.GradeRollup;
 import com.codealpha.gradetracker.service.StatisticsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 @RestController
@@ -31,4 +38,58 @@ public class StatisticsController {
     public ResponseEntity<Map<String, Object>> getStudentStatistics(@PathVariable String studentId) {
         return ResponseEntity.ok(statisticsService.getStudentStatistics(studentId));
     }
+
+    @GetMapping("/range")
+    @Operation(summary = "Get date range statistics",
+            description = "Statistics of grades dated between from and to, optionally for one course and with a DAY, WEEK or TERM trend")
+    public ResponseEntity<RangeStatisticsDTO> getRangeStatistics(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String courseId,
+            @RequestParam(required = false) GradeRollup.Granularity granularity) {
+        return ResponseEntity.ok(statisticsService.getRangeStatistics(from, to, courseId, granularity));
+    }
+
+    @GetMapping("/leaderboard/students")
+    @Operation(summary = "Get student leaderboard", description = "Students ranked by average grade, highest first")
+    public ResponseEntity<LeaderboardDTO<StatisticsDTO.TopStudent>> getStudentLeaderboard(
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(statisticsService.getStudentLeaderboard(offset, limit));
+    }
+
+    @GetMapping("/leaderboard/courses")
+    @Operation(summary = "Get course leaderboard", description = "Courses ranked by average grade, highest first")
+    public ResponseEntity<LeaderboardDTO<StatisticsDTO.CoursePerformance>> getCourseLeaderboard(
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(statisticsService.getCourseLeaderboard(offset, limit));
+    }
+
+    @GetMapping("/courses/{courseId}/percentile")
+    @Operation(summary = "Get percentile rank", description = "Percentile rank of a student's average among the students of a course")
+    public ResponseEntity<PercentileRankDTO> getPercentileRank(
+            @PathVariable String courseId,
+            @RequestParam String studentId) {
+        return ResponseEntity.ok(statisticsService.getPercentileRank(courseId, studentId));
+    }
+
+    @GetMapping("/courses/{courseId}/range")
+    @Operation(summary = "Count students in score range", description = "Number of students whose course average is within [min, max]")
+    public ResponseEntity<ScoreHistogramDTO> getScoreRange(
+            @PathVariable String courseId,
+            @RequestParam double min,
+            @RequestParam double max) {
+        return ResponseEntity.ok(statisticsService.getScoreRange(courseId, min, max));
+    }
+
+    @GetMapping("/courses/{courseId}/histogram")
+    @Operation(summary = "Get score histogram", description = "Students per course-average bin between from and to")
+    public ResponseEntity<ScoreHistogramDTO> getScoreHistogram(
+            @PathVariable String courseId,
+            @RequestParam(defaultValue = "0") double from,
+            @RequestParam(defaultValue = "100") double to,
+            @RequestParam(defaultValue = "10") double binWidth) {
+        return ResponseEntity.ok(statisticsService.getScoreHistogram(courseId, from, to, binWidth));
+    }
 }
@@ -1,7 +1,12 @@
 package com.codealpha.gradetracker.controller;
 
+import com.codealpha.gradetracker.dto.BatchRequest;
+import com.codealpha.gradetracker.dto.CursorPageDTO;
 import com.codealpha.gradetracker.dto.StudentDTO;
 import com.codealpha.gradetracker.service.StudentService;
+import com.codealpha.gradetracker.util.NdjsonWriter;
+import com.codealpha.gradetracker.util.SelectableFields;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,9 +17,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -26,26 +33,56 @@ import java.util.List;
 public class StudentController {
 
     private final StudentService studentService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    @Operation(summary = "Get all students", description = "Retrieve all students with pagination")
+    @SelectableFields
+    @Operation(summary = "Get all students", description = "Retrieve all students with pagination, optionally only the comma-separated properties in fields")
     public ResponseEntity<Page<StudentDTO>> getAllStudents(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "ASC") String sortDir) {
+            @RequestParam(defaultValue = "ASC") String sortDir,
+            @RequestParam(required = false) String fields) {
         
         Sort sort = sortDir.equalsIgnoreCase("DESC") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        return ResponseEntity.ok(studentService.getAllStudents(pageable));
+        return ResponseEntity.ok(studentService.getAllStudents(pageable, fields));
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Get students by cursor",
+            description = "Keyset pagination sorted by id, lastName or email; pass nextCursor back to get the following page")
+    public ResponseEntity<CursorPageDTO<StudentDTO>> getStudentsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(studentService.getStudentsAfter(cursor, size, sortBy, sortDir, includeTotal));
     }
 
     @GetMapping("/all")
-    @Operation(summary = "Get all students without pagination")
-    public ResponseEntity<List<StudentDTO>> getAllStudentsWithoutPagination() {
-        return ResponseEntity.ok(studentService.getAllStudents());
+    @SelectableFields
+    @Operation(summary = "Get all students without pagination", description = "Optionally only the comma-separated properties in fields")
+    public ResponseEntity<List<StudentDTO>> getAllStudentsWithoutPagination(@RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(studentService.getAllStudents(fields));
+    }
+
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all students", description = "One student per line, written while the students are read")
+    public ResponseEntity<StreamingResponseBody> streamAllStudents() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonWriter.body(objectMapper, studentService.streamAllStudents()));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get students by IDs", description = "Up to " + BatchRequest.MAX_IDS + " students in request order; unknown IDs are left out")
+    public ResponseEntity<List<StudentDTO>> getStudentsByIds(@Valid @RequestBody BatchRequest request) {
+        return ResponseEntity.ok(studentService.getStudentsByIds(request.getIds()));
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,55 @@
+package com.codealpha.gradetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExportJobDTO {
+
+    public enum Type {
+        STUDENTS_CSV("csv", "text/csv"),
+        GRADES_CSV("csv", "text/csv"),
+        GRADES_PDF("pdf", "application/pdf"),
+        STUDENT_GRADES_CSV("csv", "text/csv"),
+        REPORT_CARDS_ZIP("zip", "application/zip");
+
+        private final String extension;
+        private final String contentType;
+
+        Type(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private String id;
+    private Type type;
+    private String studentId;
+    private Status status;
+    private Long bytesWritten; // progress so far; the final size once completed
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt; // the artifact is deleted after this
+    private String downloadUrl; // only once completed
+}
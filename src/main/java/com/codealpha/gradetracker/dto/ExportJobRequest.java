@@ -0,0 +1,19 @@
+package com.codealpha.gradetracker.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExportJobRequest {
+
+    @NotNull(message = "Export type is required")
+    private ExportJobDTO.Type type;
+
+    private String studentId; // required for STUDENT_GRADES_CSV
+}
@@ -0,0 +1,20 @@
+package com.codealpha.gradetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardDTO<T> {
+
+    private Integer offset;
+    private Integer limit;
+    private Integer total;
+    private List<T> entries;
+}
@@ -0,0 +1,19 @@
+package com.codealpha.gradetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PercentileRankDTO {
+
+    private String courseId;
+    private String studentId;
+    private Double averageGrade;
+    private Double percentileRank; // 0-100
+    private Long totalStudents;
+}
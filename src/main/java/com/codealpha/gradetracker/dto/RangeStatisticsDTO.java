@@ -0,0 +1,38 @@
+package com.codealpha.gradetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RangeStatisticsDTO {
+
+    private LocalDate from;
+    private LocalDate to;
+    private String courseId; // null for all courses
+
+    private Long totalGrades;
+    private Double average;
+    private Double standardDeviation;
+    private StatisticsDTO.GradeDistribution distribution;
+
+    private String granularity;
+    private List<TrendPoint> trend;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TrendPoint {
+        private LocalDate bucketStart;
+        private Long totalGrades;
+        private Double average;
+    }
+}
@@ -0,0 +1,32 @@
+package com.codealpha.gradetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScoreHistogramDTO {
+
+    private String courseId;
+    private Double from;
+    private Double to;
+    private Long students; // Students with a course average in [from, to]
+    private Long totalStudents;
+    private List<Bin> bins;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Bin {
+        private Double from;
+        private Double to;
+        private Long students;
+    }
+}
@@ -0,0 +1,22 @@
+package com.codealpha.gradetracker.event;
+
+import com.codealpha.gradetracker.model.Course;
+import com.codealpha.gradetracker.repository.projection.CourseSummary;
+
+/**
+ * Published by {@code CourseService} after a course has been written.
+ * {@code course} holds the saved fields and is null for a deleted course.
+ */
+public record CourseChangedEvent(String courseId, CourseSummary course) {
+
+    public static CourseChangedEvent saved(Course course) {
+        return new CourseChangedEvent(course.getId(), new CourseSummary(
+                course.getId(),
+                course.getName(),
+                course.getCode()));
+    }
+
+    public static CourseChangedEvent deleted(String courseId) {
+        return new CourseChangedEvent(courseId, null);
+    }
+}
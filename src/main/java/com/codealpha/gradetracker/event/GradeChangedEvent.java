@@ -0,0 +1,20 @@
+package com.codealpha.gradetracker.event;
+
+/**
+ * Published by {@code GradeService} after a grade has been written.
+ * {@code before} is null for a newly created grade and {@code after} is null for a deleted one.
+ */
+public record GradeChangedEvent(GradeSnapshot before, GradeSnapshot after) {
+
+    public static GradeChangedEvent created(GradeSnapshot grade) {
+        return new GradeChangedEvent(null, grade);
+    }
+
+    public static GradeChangedEvent updated(GradeSnapshot before, GradeSnapshot after) {
+        return new GradeChangedEvent(before, after);
+    }
+
+    public static GradeChangedEvent deleted(GradeSnapshot grade) {
+        return new GradeChangedEvent(grade, null);
+    }
+}
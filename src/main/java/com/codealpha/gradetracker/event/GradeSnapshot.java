@@ -0,0 +1,28 @@
+package com.codealpha.gradetracker.event;
+
+import com.codealpha.gradetracker.model.Grade;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable copy of the fields of a {@link Grade} that derived statistics depend on.
+ * Taken before a grade is mutated so listeners can retract the old contribution.
+ */
+public record GradeSnapshot(
+        String id,
+        String studentId,
+        String courseId,
+        double numericScore,
+        LocalDate gradeDate
+) {
+
+    public static GradeSnapshot of(Grade grade) {
+        return new GradeSnapshot(
+                grade.getId(),
+                grade.getStudentId(),
+                grade.getCourseId(),
+                grade.getNumericScore(),
+                grade.getGradeDate()
+        );
+    }
+}
@@ -0,0 +1,19 @@
+package com.codealpha.gradetracker.event;
+
+import com.codealpha.gradetracker.model.Student;
+import com.codealpha.gradetracker.repository.projection.StudentSummary;
+
+/**
+ * Published by {@code StudentService} after a student has been written.
+ * {@code student} holds the saved fields and is null for a deleted student.
+ */
+public record StudentChangedEvent(String studentId, StudentSummary student) {
+
+    public static StudentChangedEvent saved(Student student) {
+        return new StudentChangedEvent(student.getId(), StudentSummary.of(student));
+    }
+
+    public static StudentChangedEvent deleted(String studentId) {
+        return new StudentChangedEvent(studentId, null);
+    }
+}
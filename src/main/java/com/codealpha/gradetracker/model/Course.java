@@ -7,11 +7,8 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 @Document(collection = "courses")
 @Getter
@@ -36,10 +33,6 @@ public class Course {
     @Builder.Default
     private Integer credits = 3;
 
-    @DBRef
-    @Builder.Default
-    private List<Grade> grades = new ArrayList<>();
-
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -48,13 +41,4 @@ public class Course {
 
     @Builder.Default
     private Boolean active = true;
-
-    // Helper methods
-    public void addGrade(Grade grade) {
-        grades.add(grade);
-    }
-
-    public void removeGrade(Grade grade) {
-        grades.remove(grade);
-    }
 }
@@ -7,7 +7,6 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -23,12 +22,6 @@ public class Grade {
     @Id
     private String id;
 
-    @DBRef
-    private Student student;
-
-    @DBRef
-    private Course course;
-
     @Indexed
     private String studentId;
 
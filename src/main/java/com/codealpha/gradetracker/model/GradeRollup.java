@@ -0,0 +1,87 @@
+package com.codealpha.gradetracker.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Pre-aggregated grade totals for one course over one day, week or term, keyed by
+ * {@code gradeDate}. Date-range statistics merge these buckets instead of reading grades.
+ */
+@Document(collection = "grade_rollups")
+@CompoundIndex(name = "granularity_bucket_course", def = "{ 'granularity': 1, 'bucketStart': 1, 'courseId': 1 }")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeRollup {
+
+    @Id
+    private String id; // granularity:bucketStart:courseId
+
+    private Granularity granularity;
+
+    private LocalDate bucketStart;
+
+    private String courseId;
+
+    @Builder.Default
+    private Long count = 0L;
+
+    @Builder.Default
+    private Double sum = 0.0;
+
+    @Builder.Default
+    private Double sumOfSquares = 0.0;
+
+    // Letter grade histogram
+    @Builder.Default
+    private Long gradeA = 0L;
+
+    @Builder.Default
+    private Long gradeB = 0L;
+
+    @Builder.Default
+    private Long gradeC = 0L;
+
+    @Builder.Default
+    private Long gradeD = 0L;
+
+    @Builder.Default
+    private Long gradeF = 0L;
+
+    // Set by a full rebuild so buckets it did not write can be found and removed
+    private String generation;
+
+    public static String idOf(Granularity granularity, LocalDate bucketStart, String courseId) {
+        return granularity + ":" + bucketStart + ":" + courseId;
+    }
+
+    public enum Granularity {
+        DAY,
+        WEEK, // Monday to Sunday
+        TERM; // January to June, July to December
+
+        public LocalDate bucketStart(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case TERM -> LocalDate.of(date.getYear(), date.getMonthValue() <= 6 ? 1 : 7, 1);
+            };
+        }
+
+        public LocalDate nextBucketStart(LocalDate bucketStart) {
+            return switch (this) {
+                case DAY -> bucketStart.plusDays(1);
+                case WEEK -> bucketStart.plusWeeks(1);
+                case TERM -> bucketStart.plusMonths(6);
+            };
+        }
+    }
+}
@@ -8,11 +8,8 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 @Document(collection = "students")
 @Getter
@@ -43,10 +40,6 @@ public class Student {
     @Indexed
     private String enrollmentId;
 
-    @DBRef
-    @Builder.Default
-    private List<Grade> grades = new ArrayList<>();
-
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -56,15 +49,6 @@ public class Student {
     @Builder.Default
     private Boolean active = true;
 
-    // Helper methods
-    public void addGrade(Grade grade) {
-        grades.add(grade);
-    }
-
-    public void removeGrade(Grade grade) {
-        grades.remove(grade);
-    }
-
     public String getFullName() {
         return firstName + " " + lastName;
     }
@@ -1,10 +1,12 @@
 package com.codealpha.gradetracker.repository;
 
 import com.codealpha.gradetracker.model.Course;
+import com.codealpha.gradetracker.repository.projection.CourseSummary;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,9 +22,8 @@ public interface CourseRepository extends MongoRepository<Course, String> {
 
     boolean existsByCode(String code);
 
-    @Query("{ $or: [ " +
-           "{ 'name': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'code': { $regex: ?0, $options: 'i' } } " +
-           "] }")
-    List<Course> searchCourses(String search);
+    List<CourseSummary> findSummariesByIdIn(Collection<String> ids);
+
+    @Query(value = "{}", fields = "{ 'name': 1, 'code': 1 }")
+    List<CourseSummary> findAllSummaries();
 }
@@ -9,14 +9,24 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface GradeRepository extends MongoRepository<Grade, String> {
+public interface GradeRepository extends MongoRepository<Grade, String>, GradeRepositoryCustom {
 
     List<Grade> findByStudentId(String studentId);
 
     List<Grade> findByCourseId(String courseId);
 
+    // Cursor-backed; callers must close the stream
+    Stream<Grade> streamAllBy();
+
+    Stream<Grade> streamByCourseId(String courseId);
+
+    Stream<Grade> streamByStudentId(String studentId);
+
+    Stream<Grade> streamAllByOrderByStudentIdAsc();
+
     Page<Grade> findByStudentId(String studentId, Pageable pageable);
 
     @Query("{ 'studentId': ?0, 'courseId': ?1 }")
@@ -42,4 +52,9 @@ public interface GradeRepository extends MongoRepository<Grade, String> {
 
     @Query(value = "{}", fields = "{ 'numericScore': 1 }", sort = "{ 'numericScore': 1 }")
     List<Grade> findAllScoresOrdered();
+
+    @Query(value = "{ 'courseId': { $ne: null }, 'gradeDate': { $ne: null } }", count = true)
+    long countDatedCourseGrades();
+
+    long countByStudentId(String studentId);
 }
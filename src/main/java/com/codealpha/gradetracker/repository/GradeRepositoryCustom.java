@@ -0,0 +1,78 @@
+package com.codealpha.gradetracker.repository;
+
+import com.codealpha.gradetracker.model.Grade;
+import com.codealpha.gradetracker.repository.projection.CourseGradeSummary;
+import com.codealpha.gradetracker.repository.projection.DailyCourseTotals;
+import com.codealpha.gradetracker.repository.projection.GradeAverage;
+import com.codealpha.gradetracker.repository.projection.GradeTotals;
+import com.codealpha.gradetracker.repository.projection.RankingTotals;
+import com.codealpha.gradetracker.repository.projection.StudentCourseTotals;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+
+/**
+ * Aggregation-backed queries on grades that return only final numbers instead of documents,
+ * plus keyset paging.
+ */
+public interface GradeRepositoryCustom {
+
+    /**
+     * Number of grades per distinct score, ordered by score.
+     */
+    NavigableMap<Double, Long> countByScore();
+
+    /**
+     * Count and score sum of all scored grades, broken down by whether they have a student and a
+     * course, in one pass.
+     */
+    GradeTotals sumScores();
+
+    /**
+     * Score sum and count of every student and of every course that has grades, from one
+     * pipeline: students are grouped first and the per-course groups are appended with
+     * {@code $unionWith}. A grade counts towards its student even without a course, and towards
+     * its course even without a student.
+     */
+    List<RankingTotals> sumByStudentAndByCourse();
+
+    /**
+     * Score sum and count for every (course, student) pair that has grades.
+     */
+    List<StudentCourseTotals> sumByCourseAndStudent();
+
+    /**
+     * Score totals and letter counts for every (grade date, course) pair that has grades.
+     */
+    List<DailyCourseTotals> sumByDayAndCourse();
+
+    /**
+     * Average score and grade count of each given student that has grades, keyed by student id.
+     */
+    List<GradeAverage> averageByStudentIds(Collection<String> studentIds);
+
+    /**
+     * Average score and distinct student count of every course that has grades.
+     */
+    List<CourseGradeSummary> summarizeCourses();
+
+    /**
+     * Average score and distinct student count of each given course that has grades.
+     */
+    List<CourseGradeSummary> summarizeCourses(Collection<String> courseIds);
+
+    /**
+     * Up to {@code limit} grades of a student after {@code (lastValue, lastId)} in
+     * {@code (sortBy, id)} order; the first page when {@code lastId} is null.
+     */
+    List<Grade> findKeysetPageByStudentId(String studentId, String sortBy, Sort.Direction direction,
+                                          Object lastValue, String lastId, int limit);
+
+    /**
+     * Grades with only {@code fields} (and the id) loaded: every grade when {@code property} is
+     * null, otherwise those whose {@code property} equals {@code value}.
+     */
+    List<Grade> findIncluding(String property, Object value, Collection<String> fields);
+}
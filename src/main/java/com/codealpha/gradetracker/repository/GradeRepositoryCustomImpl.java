@@ -0,0 +1,213 @@
+package com.codealpha.gradetracker.repository;
+
+import com.codealpha.gradetracker.model.Grade;
+import com.codealpha.gradetracker.repository.projection.CourseGradeSummary;
+import com.codealpha.gradetracker.repository.projection.DailyCourseTotals;
+import com.codealpha.gradetracker.repository.projection.GradeAverage;
+import com.codealpha.gradetracker.repository.projection.GradeTotals;
+import com.codealpha.gradetracker.repository.projection.RankingTotals;
+import com.codealpha.gradetracker.repository.projection.StudentCourseTotals;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.LiteralOperators;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class GradeRepositoryCustomImpl implements GradeRepositoryCustom {
+
+    private static final String GRADES = "grades";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public NavigableMap<Double, Long> countByScore() {
+        Aggregation aggregation = newAggregation(
+                match(where("numericScore").ne(null)),
+                group("numericScore").count().as("count")
+        );
+
+        NavigableMap<Double, Long> counts = new TreeMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, GRADES, Document.class)) {
+            double score = ((Number) row.get("_id")).doubleValue();
+            long count = ((Number) row.get("count")).longValue();
+            counts.merge(score, count, Long::sum);
+        }
+        return counts;
+    }
+
+    @Override
+    public GradeTotals sumScores() {
+        AggregationExpression hasStudent = present("studentId");
+        AggregationExpression hasCourse = present("courseId");
+        AggregationExpression enrolled = BooleanOperators.And.and(hasStudent, hasCourse);
+        Aggregation aggregation = newAggregation(
+                match(where("numericScore").ne(null)),
+                group()
+                        .count().as("count")
+                        .sum("numericScore").as("sum")
+                        .sum(countIf(hasStudent)).as("studentCount")
+                        .sum(scoreIf(hasStudent)).as("studentSum")
+                        .sum(countIf(hasCourse)).as("courseCount")
+                        .sum(scoreIf(hasCourse)).as("courseSum")
+                        .sum(countIf(enrolled)).as("enrolledCount")
+                        .sum(scoreIf(enrolled)).as("enrolledSum")
+        );
+
+        GradeTotals totals = mongoTemplate.aggregate(aggregation, GRADES, GradeTotals.class).getUniqueMappedResult();
+        // No group is emitted for an empty collection
+        return totals != null ? totals : new GradeTotals();
+    }
+
+    @Override
+    public List<RankingTotals> sumByStudentAndByCourse() {
+        // $unionWith rather than $facet: the rows are returned through a cursor instead of one
+        // result document, which would hit the 16 MB limit with enough students
+        Aggregation aggregation = newAggregation(
+                match(where("studentId").ne(null).and("numericScore").ne(null)),
+                group("studentId")
+                        .sum("numericScore").as("totalScore")
+                        .count().as("gradeCount"),
+                project("totalScore", "gradeCount")
+                        .and(LiteralOperators.Literal.asLiteral(RankingTotals.STUDENT)).as("kind"),
+                UnionWithOperation.unionWith(GRADES).pipeline(
+                        match(where("courseId").ne(null).and("numericScore").ne(null)),
+                        group("courseId")
+                                .sum("numericScore").as("totalScore")
+                                .count().as("gradeCount"),
+                        project("totalScore", "gradeCount")
+                                .and(LiteralOperators.Literal.asLiteral(RankingTotals.COURSE)).as("kind"))
+        );
+
+        return mongoTemplate.aggregate(aggregation, GRADES, RankingTotals.class).getMappedResults();
+    }
+
+    @Override
+    public List<StudentCourseTotals> sumByCourseAndStudent() {
+        Aggregation aggregation = newAggregation(
+                match(where("courseId").ne(null).and("studentId").ne(null)),
+                group("courseId", "studentId")
+                        .sum("numericScore").as("totalScore")
+                        .count().as("gradeCount"),
+                project("totalScore", "gradeCount", "courseId", "studentId")
+        );
+
+        return mongoTemplate.aggregate(aggregation, GRADES, StudentCourseTotals.class).getMappedResults();
+    }
+
+    @Override
+    public List<DailyCourseTotals> sumByDayAndCourse() {
+        Aggregation aggregation = newAggregation(
+                match(where("courseId").ne(null).and("gradeDate").ne(null).and("numericScore").ne(null)),
+                group("gradeDate", "courseId")
+                        .count().as("count")
+                        .sum("numericScore").as("sum")
+                        .sum(ArithmeticOperators.valueOf("numericScore").multiplyBy("numericScore")).as("sumOfSquares")
+                        .sum(countAtLeast(90)).as("atLeast90")
+                        .sum(countAtLeast(80)).as("atLeast80")
+                        .sum(countAtLeast(70)).as("atLeast70")
+                        .sum(countAtLeast(60)).as("atLeast60"),
+                project("count", "sum", "sumOfSquares", "atLeast90", "atLeast80", "atLeast70", "atLeast60",
+                        "gradeDate", "courseId")
+        );
+
+        return mongoTemplate.aggregate(aggregation, GRADES, DailyCourseTotals.class).getMappedResults();
+    }
+
+    @Override
+    public List<GradeAverage> averageByStudentIds(Collection<String> studentIds) {
+        if (studentIds.isEmpty()) {
+            return List.of();
+        }
+        Aggregation aggregation = newAggregation(
+                match(where("studentId").in(studentIds)),
+                group("studentId")
+                        .avg("numericScore").as("averageGrade")
+                        .count().as("gradeCount")
+        );
+
+        return mongoTemplate.aggregate(aggregation, GRADES, GradeAverage.class).getMappedResults();
+    }
+
+    @Override
+    public List<CourseGradeSummary> summarizeCourses() {
+        return summarizeCourses(where("courseId").ne(null));
+    }
+
+    @Override
+    public List<CourseGradeSummary> summarizeCourses(Collection<String> courseIds) {
+        if (courseIds.isEmpty()) {
+            return List.of();
+        }
+        return summarizeCourses(where("courseId").in(courseIds));
+    }
+
+    @Override
+    public List<Grade> findKeysetPageByStudentId(String studentId, String sortBy, Sort.Direction direction,
+                                                 Object lastValue, String lastId, int limit) {
+        return mongoTemplate.find(
+                KeysetQueries.after(where("studentId").is(studentId), sortBy, direction, lastValue, lastId, limit),
+                Grade.class);
+    }
+
+    @Override
+    public List<Grade> findIncluding(String property, Object value, Collection<String> fields) {
+        return mongoTemplate.find(
+                ProjectionQueries.including(property == null ? null : where(property).is(value), fields),
+                Grade.class);
+    }
+
+    // Grouped per (course, student) first so the second stage can count distinct students
+    private List<CourseGradeSummary> summarizeCourses(Criteria criteria) {
+        Aggregation aggregation = newAggregation(
+                match(criteria),
+                group("courseId", "studentId")
+                        .sum("numericScore").as("totalScore")
+                        .count().as("gradeCount"),
+                group("courseId")
+                        .sum("totalScore").as("totalScore")
+                        .sum("gradeCount").as("gradeCount")
+                        .count().as("enrolledStudents"),
+                project("enrolledStudents")
+                        .and(ArithmeticOperators.valueOf("totalScore").divideBy("gradeCount")).as("averageGrade")
+        );
+
+        return mongoTemplate.aggregate(aggregation, GRADES, CourseGradeSummary.class).getMappedResults();
+    }
+
+    private static AggregationExpression countAtLeast(double score) {
+        return ConditionalOperators
+                .when(ComparisonOperators.valueOf("numericScore").greaterThanEqualToValue(score))
+                .then(1)
+                .otherwise(0);
+    }
+
+    // True when the field is set; missing and null both read as ""
+    private static AggregationExpression present(String field) {
+        return ComparisonOperators.valueOf(ConditionalOperators.ifNull(field).then("")).notEqualToValue("");
+    }
+
+    private static AggregationExpression countIf(AggregationExpression condition) {
+        return ConditionalOperators.when(condition).then(1).otherwise(0);
+    }
+
+    private static AggregationExpression scoreIf(AggregationExpression condition) {
+        return ConditionalOperators.when(condition).thenValueOf("numericScore").otherwise(0);
+    }
+}
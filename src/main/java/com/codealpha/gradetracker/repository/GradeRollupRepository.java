@@ -0,0 +1,26 @@
+package com.codealpha.gradetracker.repository;
+
+import com.codealpha.gradetracker.model.GradeRollup;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GradeRollupRepository extends MongoRepository<GradeRollup, String>, GradeRollupRepositoryCustom {
+
+    List<GradeRollup> findByGranularityAndBucketStartIn(GradeRollup.Granularity granularity,
+                                                        Collection<LocalDate> bucketStarts);
+
+    List<GradeRollup> findByGranularityAndBucketStartInAndCourseId(GradeRollup.Granularity granularity,
+                                                                   Collection<LocalDate> bucketStarts,
+                                                                   String courseId);
+
+    List<GradeRollup> findByGranularityAndBucketStartBetweenOrderByBucketStart(GradeRollup.Granularity granularity,
+                                                                               LocalDate from, LocalDate to);
+
+    List<GradeRollup> findByGranularityAndBucketStartBetweenAndCourseIdOrderByBucketStart(
+            GradeRollup.Granularity granularity, LocalDate from, LocalDate to, String courseId);
+}
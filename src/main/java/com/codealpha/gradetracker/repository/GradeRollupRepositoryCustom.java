@@ -0,0 +1,30 @@
+package com.codealpha.gradetracker.repository;
+
+import com.codealpha.gradetracker.model.GradeRollup;
+
+import java.util.Collection;
+
+/**
+ * Atomic maintenance of grade rollup buckets.
+ */
+public interface GradeRollupRepositoryCustom {
+
+    /**
+     * Adds each delta to the bucket with the same id, creating missing buckets, in one bulk
+     * write. Buckets whose count drops to zero are removed.
+     */
+    void applyDeltas(Collection<GradeRollup> deltas);
+
+    /**
+     * Makes {@code rollups} the full set of buckets: each is stamped with a new generation and
+     * upserted by id in one bulk write, then every bucket from another generation is removed.
+     * Unlike delete-and-insert, readers never see the collection empty while this runs. Deltas
+     * must not be applied concurrently, or a bucket they create could be removed.
+     */
+    void replaceAll(Collection<GradeRollup> rollups);
+
+    /**
+     * Number of grades counted by buckets of the given granularity.
+     */
+    long sumCounts(GradeRollup.Granularity granularity);
+}
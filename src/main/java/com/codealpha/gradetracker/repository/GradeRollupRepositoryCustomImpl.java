@@ -0,0 +1,79 @@
+package com.codealpha.gradetracker.repository;
+
+import com.codealpha.gradetracker.model.GradeRollup;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class GradeRollupRepositoryCustomImpl implements GradeRollupRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void applyDeltas(Collection<GradeRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, GradeRollup.class);
+        for (GradeRollup delta : deltas) {
+            Update update = new Update()
+                    .setOnInsert("granularity", delta.getGranularity())
+                    .setOnInsert("bucketStart", delta.getBucketStart())
+                    .setOnInsert("courseId", delta.getCourseId())
+                    .inc("count", delta.getCount())
+                    .inc("sum", delta.getSum())
+                    .inc("sumOfSquares", delta.getSumOfSquares())
+                    .inc("gradeA", delta.getGradeA())
+                    .inc("gradeB", delta.getGradeB())
+                    .inc("gradeC", delta.getGradeC())
+                    .inc("gradeD", delta.getGradeD())
+                    .inc("gradeF", delta.getGradeF());
+            operations.upsert(query(where("_id").is(delta.getId())), update);
+        }
+        operations.execute();
+
+        List<String> ids = deltas.stream().map(GradeRollup::getId).toList();
+        mongoTemplate.remove(query(where("_id").in(ids).and("count").lte(0)), GradeRollup.class);
+    }
+
+    @Override
+    public void replaceAll(Collection<GradeRollup> rollups) {
+        // Removing by generation keeps the delete filter small however many buckets there are
+        String generation = UUID.randomUUID().toString();
+        if (!rollups.isEmpty()) {
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, GradeRollup.class);
+            for (GradeRollup rollup : rollups) {
+                rollup.setGeneration(generation);
+                operations.replaceOne(query(where("_id").is(rollup.getId())), rollup, FindAndReplaceOptions.options().upsert());
+            }
+            operations.execute();
+        }
+
+        mongoTemplate.remove(query(where("generation").ne(generation)), GradeRollup.class);
+    }
+
+    @Override
+    public long sumCounts(GradeRollup.Granularity granularity) {
+        Aggregation aggregation = newAggregation(
+                match(where("granularity").is(granularity.name())),
+                group().sum("count").as("total")
+        );
+
+        Document result = mongoTemplate.aggregate(aggregation, GradeRollup.class, Document.class).getUniqueMappedResult();
+        return result == null ? 0L : ((Number) result.get("total")).longValue();
+    }
+}
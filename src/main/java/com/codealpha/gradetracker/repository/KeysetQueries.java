@@ -0,0 +1,42 @@
+package com.codealpha.gradetracker.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Builds keyset page queries: rows strictly after {@code (lastValue, lastId)} in
+ * {@code (sortBy, id)} order. Paired with an index on {@code (..., sortBy, _id)} this is a
+ * bounded index range scan whatever the page depth, unlike {@code skip}.
+ */
+final class KeysetQueries {
+
+    private static final String ID = "id";
+
+    private KeysetQueries() {
+    }
+
+    /**
+     * @param lastValue sort key of the last row of the previous page, ignored when sorting by id
+     * @param lastId    id of the last row of the previous page, or null for the first page
+     */
+    static Query after(Criteria filter, String sortBy, Sort.Direction direction,
+                       Object lastValue, String lastId, int limit) {
+        boolean ascending = direction.isAscending();
+        Criteria criteria = filter;
+
+        if (lastId != null) {
+            Criteria idAfter = ascending ? where(ID).gt(lastId) : where(ID).lt(lastId);
+            Criteria after = ID.equals(sortBy) ? idAfter : new Criteria().orOperator(
+                    ascending ? where(sortBy).gt(lastValue) : where(sortBy).lt(lastValue),
+                    new Criteria().andOperator(where(sortBy).is(lastValue), idAfter));
+            criteria = filter == null ? after : new Criteria().andOperator(filter, after);
+        }
+
+        Query query = criteria == null ? new Query() : new Query(criteria);
+        Sort sort = ID.equals(sortBy) ? Sort.by(direction, ID) : Sort.by(direction, sortBy, ID);
+        return query.with(sort).limit(limit);
+    }
+}
@@ -0,0 +1,23 @@
+package com.codealpha.gradetracker.repository;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collection;
+
+/**
+ * Builds queries that return only the named document fields (plus {@code _id}), so callers that
+ * need a few properties do not transfer and map whole documents.
+ */
+final class ProjectionQueries {
+
+    private ProjectionQueries() {
+    }
+
+    static Query including(Criteria filter, Collection<String> fields) {
+        Query query = filter == null ? new Query() : new Query(filter);
+        // An empty include list would project nothing and return whole documents
+        query.fields().include(fields.isEmpty() ? new String[]{"_id"} : fields.toArray(String[]::new));
+        return query;
+    }
+}
@@ -1,17 +1,18 @@
 package com.codealpha.gradetracker.repository;
 
 import com.codealpha.gradetracker.model.Student;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.codealpha.gradetracker.repository.projection.StudentSummary;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface StudentRepository extends MongoRepository<Student, String> {
+public interface StudentRepository extends MongoRepository<Student, String>, StudentRepositoryCustom {
 
     Optional<Student> findByEmail(String email);
 
@@ -19,13 +20,8 @@ public interface StudentRepository extends MongoRepository<Student, String> {
 
     List<Student> findByActiveTrue();
 
-    @Query("{ $or: [ " +
-           "{ 'firstName': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'lastName': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'email': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'enrollmentId': { $regex: ?0, $options: 'i' } } " +
-           "] }")
-    Page<Student> searchStudents(String search, Pageable pageable);
+    // Cursor-backed; callers must close the stream
+    Stream<Student> streamAllBy();
 
     @Query(value = "{ 'active': true }", count = true)
     long countActiveStudents();
@@ -33,4 +29,9 @@ public interface StudentRepository extends MongoRepository<Student, String> {
     boolean existsByEmail(String email);
 
     boolean existsByEnrollmentId(String enrollmentId);
+
+    List<StudentSummary> findSummariesByIdIn(Collection<String> ids);
+
+    @Query(value = "{}", fields = "{ 'firstName': 1, 'lastName': 1, 'email': 1, 'enrollmentId': 1 }")
+    List<StudentSummary> findAllSummaries();
 }
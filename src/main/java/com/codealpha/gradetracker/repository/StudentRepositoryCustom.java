@@ -0,0 +1,28 @@
+package com.codealpha.gradetracker.repository;
+
+import com.codealpha.gradetracker.model.Student;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface StudentRepositoryCustom {
+
+    /**
+     * Up to {@code limit} students after {@code (lastValue, lastId)} in {@code (sortBy, id)}
+     * order; the first page when {@code lastId} is null.
+     */
+    List<Student> findKeysetPage(String sortBy, Sort.Direction direction, Object lastValue, String lastId, int limit);
+
+    /**
+     * Every student with only {@code fields} (and the id) loaded.
+     */
+    List<Student> findAllIncluding(Collection<String> fields);
+
+    /**
+     * A page of students with only {@code fields} (and the id) loaded.
+     */
+    Page<Student> findAllIncluding(Pageable pageable, Collection<String> fields);
+}
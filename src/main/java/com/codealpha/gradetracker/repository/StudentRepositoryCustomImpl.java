@@ -0,0 +1,35 @@
+package com.codealpha.gradetracker.repository;
+
+import com.codealpha.gradetracker.model.Student;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class StudentRepositoryCustomImpl implements StudentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Student> findKeysetPage(String sortBy, Sort.Direction direction, Object lastValue, String lastId, int limit) {
+        return mongoTemplate.find(KeysetQueries.after(null, sortBy, direction, lastValue, lastId, limit), Student.class);
+    }
+
+    @Override
+    public List<Student> findAllIncluding(Collection<String> fields) {
+        return mongoTemplate.find(ProjectionQueries.including(null, fields), Student.class);
+    }
+
+    @Override
+    public Page<Student> findAllIncluding(Pageable pageable, Collection<String> fields) {
+        List<Student> students = mongoTemplate.find(ProjectionQueries.including(null, fields).with(pageable), Student.class);
+        return PageableExecutionUtils.getPage(students, pageable, () -> mongoTemplate.count(new Query(), Student.class));
+    }
+}
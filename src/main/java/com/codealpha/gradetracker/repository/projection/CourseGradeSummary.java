@@ -0,0 +1,18 @@
+package com.codealpha.gradetracker.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Average score and number of distinct graded students of one course.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseGradeSummary {
+
+    private String id;
+    private Double averageGrade;
+    private Long enrolledStudents;
+}
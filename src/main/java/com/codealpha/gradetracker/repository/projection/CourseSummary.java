@@ -0,0 +1,21 @@
+package com.codealpha.gradetracker.repository.projection;
+
+import lombok.Value;
+
+/**
+ * Display fields of a course, loaded without the rest of the document.
+ */
+@Value
+public class CourseSummary {
+
+    String id;
+    String name;
+    String code;
+
+    /**
+     * Placeholder for a course id that no longer resolves.
+     */
+    public static CourseSummary missing(String id) {
+        return new CourseSummary(id, "Unknown", "Unknown");
+    }
+}
@@ -0,0 +1,27 @@
+package com.codealpha.gradetracker.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Score totals of one course on one grade date. Letter counts are cumulative
+ * ({@code atLeast80} includes every score of 90 and above).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyCourseTotals {
+
+    private LocalDate gradeDate;
+    private String courseId;
+    private Long count;
+    private Double sum;
+    private Double sumOfSquares;
+    private Long atLeast90;
+    private Long atLeast80;
+    private Long atLeast70;
+    private Long atLeast60;
+}
@@ -0,0 +1,18 @@
+package com.codealpha.gradetracker.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Average score and number of grades of one group, keyed by the grouped id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeAverage {
+
+    private String id;
+    private Double averageGrade;
+    private Long gradeCount;
+}
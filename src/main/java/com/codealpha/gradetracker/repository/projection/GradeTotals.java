@@ -0,0 +1,24 @@
+package com.codealpha.gradetracker.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number and score sum of all scored grades, and of those with a student, with a course and
+ * with both, for checking in-memory aggregates against the collection.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeTotals {
+
+    private long count;
+    private double sum;
+    private long studentCount;
+    private double studentSum;
+    private long courseCount;
+    private double courseSum;
+    private long enrolledCount;
+    private double enrolledSum;
+}
@@ -0,0 +1,26 @@
+package com.codealpha.gradetracker.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sum and number of the scores of one student or one course, keyed by its id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankingTotals {
+
+    public static final String STUDENT = "student";
+    public static final String COURSE = "course";
+
+    private String kind; // STUDENT or COURSE
+    private String id;
+    private Double totalScore;
+    private Long gradeCount;
+
+    public boolean isStudent() {
+        return STUDENT.equals(kind);
+    }
+}
@@ -0,0 +1,19 @@
+package com.codealpha.gradetracker.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sum and number of a student's scores in one course.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentCourseTotals {
+
+    private String courseId;
+    private String studentId;
+    private Double totalScore;
+    private Long gradeCount;
+}
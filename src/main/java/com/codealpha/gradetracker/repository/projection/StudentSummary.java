@@ -0,0 +1,33 @@
+package com.codealpha.gradetracker.repository.projection;
+
+import com.codealpha.gradetracker.model.Student;
+import lombok.Value;
+
+/**
+ * Display fields of a student, loaded without the rest of the document.
+ */
+@Value
+public class StudentSummary {
+
+    String id;
+    String firstName;
+    String lastName;
+    String email;
+    String enrollmentId;
+
+    public static StudentSummary of(Student student) {
+        return new StudentSummary(student.getId(), student.getFirstName(), student.getLastName(),
+                student.getEmail(), student.getEnrollmentId());
+    }
+
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+
+    /**
+     * Placeholder for a student id that no longer resolves.
+     */
+    public static StudentSummary missing(String id) {
+        return new StudentSummary(id, "Unknown", "Student", "", "");
+    }
+}
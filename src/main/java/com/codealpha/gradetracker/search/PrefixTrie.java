@@ -0,0 +1,301 @@
+package com.codealpha.gradetracker.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Compressed prefix trie (radix tree) for typeahead. Every node caches the best
+ * {@code capacity} entries of its subtree, so a lookup walks the prefix and returns a slice of
+ * that cache: O(prefix length + limit) with no allocation beyond the returned list. Writes
+ * refresh the caches on the path they touch; {@link #replaceAll} fills the trie first and
+ * computes every cache once, bottom-up. An entry appears at most once per cache even when
+ * several of its keys share the prefix. Keys are used as given; callers normalize them.
+ * Not thread-safe.
+ */
+public final class PrefixTrie {
+
+    public record Entry(String id, String label, int weight) {
+    }
+
+    /**
+     * Higher weight first, then label and id, so results are stable.
+     */
+    public static final Comparator<Entry> RANKING = Comparator.comparingInt(Entry::weight).reversed()
+            .thenComparing(Entry::label)
+            .thenComparing(Entry::id);
+
+    private static final Entry[] NONE = new Entry[0];
+
+    private final int capacity;
+    private final Node root = new Node("");
+
+    public PrefixTrie(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds {@code entry} under {@code key}, replacing an entry with the same id under that key.
+     */
+    public void add(String key, Entry entry) {
+        if (!key.isEmpty()) {
+            refresh(insert(key, entry));
+        }
+    }
+
+    /**
+     * Replaces the contents with the entries {@code loader} passes to the given adder. The cached
+     * top entries are computed once after the load instead of on every insert.
+     */
+    public void replaceAll(Consumer<BiConsumer<String, Entry>> loader) {
+        clear();
+        loader.accept((key, entry) -> {
+            if (!key.isEmpty()) {
+                insert(key, entry);
+            }
+        });
+        refreshSubtree(root);
+    }
+
+    // Adds the entry without refreshing caches; returns the path from the key's node up to the root
+    private Deque<Node> insert(String key, Entry entry) {
+        Deque<Node> path = new ArrayDeque<>();
+        path.push(root);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int slot = node.slot(key.charAt(i));
+            if (slot < 0) {
+                Node leaf = new Node(key.substring(i));
+                node.insertChild(-slot - 1, leaf);
+                node = leaf;
+                path.push(node);
+                break;
+            }
+            Node child = node.children[slot];
+            int common = commonPrefixLength(child.segment, key, i);
+            if (common < child.segment.length()) {
+                // Split the edge so the key ends on (or branches from) a node
+                Node middle = new Node(child.segment.substring(0, common));
+                child.segment = child.segment.substring(common);
+                middle.insertChild(0, child);
+                middle.top = child.top;
+                node.children[slot] = middle;
+                child = middle;
+            }
+            node = child;
+            i += common;
+            path.push(node);
+        }
+
+        node.values = withoutId(node.values, entry.id());
+        node.values = Arrays.copyOf(node.values, node.values.length + 1);
+        node.values[node.values.length - 1] = entry;
+        return path;
+    }
+
+    /**
+     * Removes the entry with {@code id} from {@code key}; returns false if it was not there.
+     */
+    public boolean remove(String key, String id) {
+        Deque<Node> path = new ArrayDeque<>();
+        path.push(root);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int slot = node.slot(key.charAt(i));
+            if (slot < 0) {
+                return false;
+            }
+            Node child = node.children[slot];
+            if (!key.startsWith(child.segment, i)) {
+                return false;
+            }
+            node = child;
+            i += child.segment.length();
+            path.push(node);
+        }
+
+        Entry[] remaining = withoutId(node.values, id);
+        if (remaining.length == node.values.length) {
+            return false;
+        }
+        node.values = remaining;
+        prune(path);
+        refresh(path);
+        return true;
+    }
+
+    /**
+     * Best entries (at most {@code limit}, capped at the capacity) whose key starts with {@code prefix}.
+     */
+    public List<Entry> search(String prefix, int limit) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int slot = node.slot(prefix.charAt(i));
+            if (slot < 0) {
+                return List.of();
+            }
+            Node child = node.children[slot];
+            int remaining = prefix.length() - i;
+            if (remaining <= child.segment.length()) {
+                // The prefix ends inside this edge
+                if (!child.segment.regionMatches(0, prefix, i, remaining)) {
+                    return List.of();
+                }
+                node = child;
+                break;
+            }
+            if (!prefix.startsWith(child.segment, i)) {
+                return List.of();
+            }
+            node = child;
+            i += child.segment.length();
+        }
+
+        int count = Math.min(Math.max(limit, 0), node.top.length);
+        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(node.top, count)));
+    }
+
+    public void clear() {
+        root.children = new Node[0];
+        root.values = NONE;
+        root.top = NONE;
+    }
+
+    // Drops nodes left without entries or children, bottom-up; the path stays valid for refresh
+    private void prune(Deque<Node> path) {
+        Node[] nodes = path.toArray(new Node[0]);
+        for (int n = 0; n + 1 < nodes.length; n++) {
+            Node node = nodes[n];
+            if (node.values.length > 0 || node.children.length > 0) {
+                return;
+            }
+            nodes[n + 1].removeChild(node);
+            path.remove(node);
+        }
+    }
+
+    // Recomputes the cached top entries from the deepest node of the path up to the root
+    private void refresh(Deque<Node> path) {
+        for (Node node : path) {
+            refresh(node);
+        }
+    }
+
+    // Children first, so every node merges caches that are already current
+    private void refreshSubtree(Node node) {
+        for (Node child : node.children) {
+            refreshSubtree(child);
+        }
+        refresh(node);
+    }
+
+    private void refresh(Node node) {
+        List<Entry> candidates = new ArrayList<>(node.values.length + node.children.length * capacity);
+        Collections.addAll(candidates, node.values);
+        for (Node child : node.children) {
+            Collections.addAll(candidates, child.top);
+        }
+        candidates.sort(RANKING);
+
+        List<Entry> top = new ArrayList<>(Math.min(capacity, candidates.size()));
+        Set<String> seen = new HashSet<>();
+        for (Entry entry : candidates) {
+            if (top.size() == capacity) {
+                break;
+            }
+            if (seen.add(entry.id())) {
+                top.add(entry);
+            }
+        }
+        node.top = top.toArray(NONE);
+    }
+
+    private static Entry[] withoutId(Entry[] entries, String id) {
+        int keep = 0;
+        for (Entry entry : entries) {
+            if (!entry.id().equals(id)) {
+                keep++;
+            }
+        }
+        if (keep == entries.length) {
+            return entries;
+        }
+        Entry[] kept = new Entry[keep];
+        int next = 0;
+        for (Entry entry : entries) {
+            if (!entry.id().equals(id)) {
+                kept[next++] = entry;
+            }
+        }
+        return kept;
+    }
+
+    private static int commonPrefixLength(String segment, String key, int offset) {
+        int max = Math.min(segment.length(), key.length() - offset);
+        int length = 0;
+        while (length < max && segment.charAt(length) == key.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static final class Node {
+        private String segment;
+        // Sorted by the first character of their segment
+        private Node[] children = new Node[0];
+        private Entry[] values = NONE;
+        private Entry[] top = NONE;
+
+        private Node(String segment) {
+            this.segment = segment;
+        }
+
+        // Index of the child starting with c, or (-insertion point - 1)
+        private int slot(char c) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char first = children[mid].segment.charAt(0);
+                if (first < c) {
+                    low = mid + 1;
+                } else if (first > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -low - 1;
+        }
+
+        private void insertChild(int index, Node child) {
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+
+        private void removeChild(Node child) {
+            int index = slot(child.segment.charAt(0));
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk;
+        }
+    }
+}
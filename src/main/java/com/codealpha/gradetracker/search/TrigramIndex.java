@@ -0,0 +1,284 @@
+package com.codealpha.gradetracker.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index from character trigrams to documents, for ranked substring search
+ * over a few short text fields per document (names, emails, codes).
+ * <p>
+ * Queries of three or more characters intersect the posting lists of their trigrams; shorter
+ * queries use the word-prefix grams that are indexed alongside them. Candidates are verified
+ * against the stored text, so results are exact substring (or word-prefix) matches ranked by
+ * field weight and match quality: exact field, field prefix, word prefix, then anywhere.
+ * <p>
+ * Posting lists are append-only sorted int arrays. Removed or replaced documents are
+ * tombstoned and the index is compacted once tombstones outnumber live documents.
+ * Not thread-safe.
+ */
+public final class TrigramIndex {
+
+    private static final char WORD_START = '\u0001';
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final int MIN_COMPACTION = 1024;
+
+    private static final int EXACT = 4;
+    private static final int PREFIX = 3;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 1;
+
+    private final int[] fieldWeights;
+
+    private final Map<String, Integer> docs = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final BitSet alive = new BitSet();
+    private String[] ids = new String[64];
+    private String[][] values = new String[64][];
+    private int nextDoc;
+
+    public record Hit(String id, int score) {
+    }
+
+    public record Result(int total, List<Hit> hits) {
+    }
+
+    /**
+     * @param fieldWeights relative weight of each field, in the order values are passed to {@link #put}
+     */
+    public TrigramIndex(int... fieldWeights) {
+        this.fieldWeights = fieldWeights.clone();
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return SPACES.matcher(MARKS.matcher(decomposed).replaceAll("")).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Indexes {@code id} with one value per field, replacing any previous values.
+     */
+    public void put(String id, String... fieldValues) {
+        if (fieldValues.length != fieldWeights.length) {
+            throw new IllegalArgumentException("Expected " + fieldWeights.length + " field values");
+        }
+        remove(id);
+
+        String[] normalized = new String[fieldValues.length];
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i < fieldValues.length; i++) {
+            normalized[i] = normalize(fieldValues[i]);
+            addGrams(normalized[i], grams);
+        }
+
+        int doc = nextDoc++;
+        if (doc == ids.length) {
+            ids = Arrays.copyOf(ids, doc * 2);
+            values = Arrays.copyOf(values, doc * 2);
+        }
+        ids[doc] = id;
+        values[doc] = normalized;
+        alive.set(doc);
+        docs.put(id, doc);
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(doc);
+        }
+    }
+
+    public boolean remove(String id) {
+        Integer doc = docs.remove(id);
+        if (doc == null) {
+            return false;
+        }
+        alive.clear(doc);
+        ids[doc] = null;
+        values[doc] = null;
+        int dead = nextDoc - docs.size();
+        if (dead >= MIN_COMPACTION && dead > docs.size()) {
+            compact();
+        }
+        return true;
+    }
+
+    public void clear() {
+        docs.clear();
+        postings.clear();
+        alive.clear();
+        ids = new String[64];
+        values = new String[64][];
+        nextDoc = 0;
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    /**
+     * All documents matching {@code query}, counted, with the best {@code limit} of them ranked
+     * by score (highest first) and then id.
+     */
+    public Result search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit < 1) {
+            return new Result(0, List.of());
+        }
+        boolean shortQuery = q.length() < 3;
+
+        Set<String> grams = new HashSet<>();
+        if (shortQuery) {
+            grams.add(WORD_START + q);
+        } else {
+            addTrigrams(q, grams);
+        }
+        int[] candidates = intersect(grams);
+
+        Comparator<Hit> ranking = Comparator.comparingInt(Hit::score).reversed().thenComparing(Hit::id);
+        PriorityQueue<Hit> best = new PriorityQueue<>(ranking.reversed());
+        int total = 0;
+        for (int doc : candidates) {
+            int score = score(values[doc], q, shortQuery);
+            if (score == 0) {
+                continue;
+            }
+            total++;
+            if (best.size() < limit) {
+                best.add(new Hit(ids[doc], score));
+            } else if (score >= best.peek().score()) {
+                // Only allocate for documents that can displace the current worst hit
+                Hit hit = new Hit(ids[doc], score);
+                if (ranking.compare(hit, best.peek()) < 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(ranking);
+        return new Result(total, hits);
+    }
+
+    private int score(String[] fields, String q, boolean shortQuery) {
+        int best = 0;
+        for (int i = 0; i < fields.length; i++) {
+            int quality = matchQuality(fields[i], q);
+            if (shortQuery && quality < WORD_PREFIX) {
+                continue;
+            }
+            best = Math.max(best, quality * fieldWeights[i]);
+        }
+        return best;
+    }
+
+    private static int matchQuality(String value, String q) {
+        int index = value.indexOf(q);
+        if (index < 0) return 0;
+        if (index == 0) return value.length() == q.length() ? EXACT : PREFIX;
+        for (; index > 0; index = value.indexOf(q, index + 1)) {
+            if (!Character.isLetterOrDigit(value.charAt(index - 1))) {
+                return WORD_PREFIX;
+            }
+        }
+        return SUBSTRING;
+    }
+
+    // Documents present in every posting list, smallest list first so the work is bounded by it
+    private int[] intersect(Set<String> grams) {
+        List<Postings> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        Postings smallest = lists.get(0);
+        int[] result = new int[smallest.size];
+        int size = 0;
+        for (int i = 0; i < smallest.size; i++) {
+            if (alive.get(smallest.docs[i])) {
+                result[size++] = smallest.docs[i];
+            }
+        }
+        for (int l = 1; l < lists.size() && size > 0; l++) {
+            Postings list = lists.get(l);
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < size; i++) {
+                int position = Arrays.binarySearch(list.docs, from, list.size, result[i]);
+                if (position >= 0) {
+                    result[kept++] = result[i];
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+            size = kept;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private void compact() {
+        String[] liveIds = new String[docs.size()];
+        String[][] liveValues = new String[docs.size()][];
+        int next = 0;
+        for (int doc = alive.nextSetBit(0); doc >= 0; doc = alive.nextSetBit(doc + 1)) {
+            liveIds[next] = ids[doc];
+            liveValues[next] = values[doc];
+            next++;
+        }
+
+        clear();
+        for (int i = 0; i < liveIds.length; i++) {
+            // Values are already normalized, and normalizing is idempotent
+            put(liveIds[i], liveValues[i]);
+        }
+    }
+
+    private static void addGrams(String text, Set<String> grams) {
+        addTrigrams(text, grams);
+        for (int i = 0; i < text.length(); i++) {
+            if (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1))) {
+                grams.add(WORD_START + text.substring(i, i + 1));
+                if (i + 2 <= text.length()) {
+                    grams.add(WORD_START + text.substring(i, i + 2));
+                }
+            }
+        }
+    }
+
+    private static void addTrigrams(String text, Set<String> grams) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(text.substring(i, i + 3));
+        }
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        // Documents are numbered in insertion order, so appending keeps the list sorted
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
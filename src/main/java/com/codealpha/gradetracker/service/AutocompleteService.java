@@ -0,0 +1,222 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.dto.SuggestionDTO;
+import com.codealpha.gradetracker.event.CourseChangedEvent;
+import com.codealpha.gradetracker.event.StudentChangedEvent;
+import com.codealpha.gradetracker.repository.CourseRepository;
+import com.codealpha.gradetracker.repository.StudentRepository;
+import com.codealpha.gradetracker.repository.projection.CourseSummary;
+import com.codealpha.gradetracker.repository.projection.StudentSummary;
+import com.codealpha.gradetracker.search.PrefixTrie;
+import com.codealpha.gradetracker.search.TrigramIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Typeahead over student names, emails and enrollment ids and over course codes and names,
+ * backed by one {@link PrefixTrie} per type. Every word of a name is a key too, so "doe"
+ * suggests "John Doe". Built on startup (see {@link VersionedRebuild}) and kept current from
+ * student and course events.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AutocompleteService {
+
+    public static final String STUDENT = "STUDENT";
+    public static final String COURSE = "COURSE";
+    public static final int MAX_SUGGESTIONS = 20;
+
+    // Identifiers typed in full rank above names, names above emails and inner name words
+    private static final int IDENTIFIER_WEIGHT = 3;
+    private static final int NAME_WEIGHT = 2;
+    private static final int OTHER_WEIGHT = 1;
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+
+    private final PrefixTrie students = new PrefixTrie(MAX_SUGGESTIONS);
+    private final PrefixTrie courses = new PrefixTrie(MAX_SUGGESTIONS);
+    // Keys each entity is indexed under, so an update or delete can retract them
+    private final Map<String, List<String>> studentKeys = new HashMap<>();
+    private final Map<String, List<String>> courseKeys = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by this; the tries and key maps by lock
+    private long version;
+    private volatile boolean initialized;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @EventListener
+    public synchronized void onStudentChanged(StudentChangedEvent event) {
+        version++;
+        if (!initialized) {
+            // The startup rebuild picks the write up from the collection, rescanning if it is running
+            return;
+        }
+        write(() -> {
+            retract(students, studentKeys, event.studentId());
+            if (event.student() != null) {
+                putStudent(event.student(), students::add);
+            }
+        });
+    }
+
+    @EventListener
+    public synchronized void onCourseChanged(CourseChangedEvent event) {
+        version++;
+        if (!initialized) {
+            return;
+        }
+        write(() -> {
+            retract(courses, courseKeys, event.courseId());
+            if (event.course() != null) {
+                putCourse(event.course(), courses::add);
+            }
+        });
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        VersionedRebuild.run("autocomplete tries", this, () -> version, this::scan, summaries -> {
+            write(() -> {
+                // Bulk loads, so each trie computes its cached top entries once
+                studentKeys.clear();
+                students.replaceAll(add -> summaries.students().forEach(student -> putStudent(student, add)));
+                courseKeys.clear();
+                courses.replaceAll(add -> summaries.courses().forEach(course -> putCourse(course, add)));
+            });
+            initialized = true;
+            log.info("Rebuilt autocomplete tries for {} students and {} courses in {} ms",
+                    summaries.students().size(), summaries.courses().size(), System.currentTimeMillis() - start);
+        });
+    }
+
+    /**
+     * Up to {@code limit} suggestions whose name, email, enrollment id or code starts with
+     * {@code query}, for one type or for both when {@code type} is null.
+     */
+    public List<SuggestionDTO> suggest(String query, String type, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        if (type != null && !STUDENT.equalsIgnoreCase(type) && !COURSE.equalsIgnoreCase(type)) {
+            throw new IllegalArgumentException("Type must be " + STUDENT + " or " + COURSE);
+        }
+        String prefix = TrigramIndex.normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        if (!initialized) {
+            initializeOnce();
+        }
+
+        List<PrefixTrie.Entry> studentHits;
+        List<PrefixTrie.Entry> courseHits;
+        lock.readLock().lock();
+        try {
+            studentHits = COURSE.equalsIgnoreCase(type) ? List.of() : students.search(prefix, limit);
+            courseHits = STUDENT.equalsIgnoreCase(type) ? List.of() : courses.search(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Both lists are ranked, so merge them like sorted runs
+        List<SuggestionDTO> suggestions = new ArrayList<>(Math.min(limit, studentHits.size() + courseHits.size()));
+        int s = 0;
+        int c = 0;
+        while (suggestions.size() < limit && (s < studentHits.size() || c < courseHits.size())) {
+            boolean takeStudent = c == courseHits.size()
+                    || s < studentHits.size() && PrefixTrie.RANKING.compare(studentHits.get(s), courseHits.get(c)) <= 0;
+            PrefixTrie.Entry entry = takeStudent ? studentHits.get(s++) : courseHits.get(c++);
+            suggestions.add(SuggestionDTO.builder()
+                    .type(takeStudent ? STUDENT : COURSE)
+                    .id(entry.id())
+                    .label(entry.label())
+                    .build());
+        }
+        return suggestions;
+    }
+
+    // Requests that arrive before the startup rebuild has run; only the first one rebuilds
+    private synchronized void initializeOnce() {
+        if (!initialized) {
+            rebuild();
+        }
+    }
+
+    private Summaries scan() {
+        return new Summaries(studentRepository.findAllSummaries(), courseRepository.findAllSummaries());
+    }
+
+    private void putStudent(StudentSummary student, BiConsumer<String, PrefixTrie.Entry> trie) {
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        addNameKeys(keys, student.getFullName());
+        addKey(keys, student.getEmail(), OTHER_WEIGHT);
+        addKey(keys, student.getEnrollmentId(), IDENTIFIER_WEIGHT);
+        index(trie, studentKeys, student.getId(), student.getFullName(), keys);
+    }
+
+    private void putCourse(CourseSummary course, BiConsumer<String, PrefixTrie.Entry> trie) {
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        addNameKeys(keys, course.getName());
+        addKey(keys, course.getCode(), IDENTIFIER_WEIGHT);
+        index(trie, courseKeys, course.getId(), course.getCode() + " - " + course.getName(), keys);
+    }
+
+    // The whole name, plus the rest of the name from every later word
+    private static void addNameKeys(Map<String, Integer> keys, String name) {
+        String normalized = TrigramIndex.normalize(name);
+        addKey(keys, normalized, NAME_WEIGHT);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            addKey(keys, normalized.substring(i + 1), OTHER_WEIGHT);
+        }
+    }
+
+    private static void addKey(Map<String, Integer> keys, String key, int weight) {
+        String normalized = TrigramIndex.normalize(key);
+        if (!normalized.isEmpty()) {
+            keys.merge(normalized, weight, Math::max);
+        }
+    }
+
+    private static void index(BiConsumer<String, PrefixTrie.Entry> trie, Map<String, List<String>> indexed,
+                              String id, String label, Map<String, Integer> keys) {
+        keys.forEach((key, weight) -> trie.accept(key, new PrefixTrie.Entry(id, label, weight)));
+        indexed.put(id, List.copyOf(keys.keySet()));
+    }
+
+    private static void retract(PrefixTrie trie, Map<String, List<String>> indexed, String id) {
+        List<String> keys = indexed.remove(id);
+        if (keys != null) {
+            keys.forEach(key -> trie.remove(key, id));
+        }
+    }
+
+    private void write(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record Summaries(List<StudentSummary> students, List<CourseSummary> courses) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.event.CourseChangedEvent;
+import com.codealpha.gradetracker.model.Course;
+import com.codealpha.gradetracker.repository.CourseRepository;
+import com.codealpha.gradetracker.repository.projection.CourseSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Every course document, held in memory and indexed by id and by code. Courses are few and
+ * rarely written, so reads never touch MongoDB: the whole set is loaded on first use, dropped
+ * whenever a {@link CourseChangedEvent} is published and reloaded periodically in case a write
+ * bypassed the services.
+ * <p>
+ * Callers get their own copy of every cached course, so modifying a returned entity never
+ * changes what other readers see.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CourseCache {
+
+    private final CourseRepository courseRepository;
+
+    private final Object loadLock = new Object();
+    private volatile Snapshot snapshot;
+    // Bumped by every invalidation so a load that raced with a write is not installed
+    private long generation;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        refresh();
+    }
+
+    @EventListener
+    public synchronized void onCourseChanged(CourseChangedEvent event) {
+        generation++;
+        snapshot = null;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.cache.courses.refresh-interval-ms:600000}",
+            fixedDelayString = "${app.cache.courses.refresh-interval-ms:600000}")
+    public void refresh() {
+        load();
+    }
+
+    public Optional<Course> findById(String id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(current().byId().get(id)).map(CourseCache::copy);
+    }
+
+    public Optional<Course> findByCode(String code) {
+        return code == null ? Optional.empty() : Optional.ofNullable(current().byCode().get(code)).map(CourseCache::copy);
+    }
+
+    public boolean existsById(String id) {
+        return id != null && current().byId().containsKey(id);
+    }
+
+    /**
+     * The cached courses with the given ids, in no particular order; unknown ids are skipped.
+     */
+    public List<Course> findAllById(Collection<String> ids) {
+        return cachedById(ids).stream()
+                .map(CourseCache::copy)
+                .toList();
+    }
+
+    public List<Course> findAll() {
+        return current().all().stream()
+                .map(CourseCache::copy)
+                .toList();
+    }
+
+    public Map<String, CourseSummary> findSummaries(Collection<String> ids) {
+        Map<String, CourseSummary> summaries = new HashMap<>();
+        for (Course course : cachedById(ids)) {
+            summaries.put(course.getId(), new CourseSummary(course.getId(), course.getName(), course.getCode()));
+        }
+        return summaries;
+    }
+
+    public long count() {
+        return current().all().size();
+    }
+
+    private List<Course> cachedById(Collection<String> ids) {
+        Map<String, Course> byId = current().byId();
+        return ids.stream()
+                .distinct()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        // Only one reader reloads after an invalidation; the rest wait for its snapshot
+        synchronized (loadLock) {
+            current = snapshot;
+            return current != null ? current : load();
+        }
+    }
+
+    private Snapshot load() {
+        long start = System.currentTimeMillis();
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+
+        List<Course> courses = List.copyOf(courseRepository.findAll());
+        Map<String, Course> byId = new HashMap<>();
+        Map<String, Course> byCode = new HashMap<>();
+        for (Course course : courses) {
+            byId.put(course.getId(), course);
+            byCode.put(course.getCode(), course);
+        }
+        Snapshot loaded = new Snapshot(courses, Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byCode));
+
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                snapshot = loaded;
+            }
+        }
+        log.debug("Loaded {} courses into the course cache in {} ms",
+                courses.size(), System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    private static Course copy(Course course) {
+        return Course.builder()
+                .id(course.getId())
+                .name(course.getName())
+                .code(course.getCode())
+                .description(course.getDescription())
+                .credits(course.getCredits())
+                .createdAt(course.getCreatedAt())
+                .updatedAt(course.getUpdatedAt())
+                .active(course.getActive())
+                .build();
+    }
+
+    private record Snapshot(List<Course> all, Map<String, Course> byId, Map<String, Course> byCode) {
+    }
+}
@@ -0,0 +1,214 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.event.GradeChangedEvent;
+import com.codealpha.gradetracker.event.GradeSnapshot;
+import com.codealpha.gradetracker.repository.GradeRepository;
+import com.codealpha.gradetracker.repository.projection.GradeTotals;
+import com.codealpha.gradetracker.repository.projection.StudentCourseTotals;
+import com.codealpha.gradetracker.statistics.ScoreFenwickTree;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+/**
+ * In-memory rank index of students within each course. Every (course, student) pair contributes
+ * its course average to a per-course {@link ScoreFenwickTree}, so percentile ranks, range counts
+ * and histogram slices are answered in O(log buckets) without reading grades.
+ * <p>
+ * Kept current from {@link GradeChangedEvent}s and rebuilt from a grouped aggregation on startup
+ * (see {@link VersionedRebuild}) and whenever the {@link GradeDriftCheck} finds it out of step.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CourseRankIndex {
+
+    private static final ScoreFenwickTree EMPTY = new ScoreFenwickTree();
+
+    private final GradeRepository gradeRepository;
+
+    private final Map<String, CourseEntry> courses = new HashMap<>();
+    private long version;
+    private boolean initialized;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @EventListener
+    public synchronized void onGradeChanged(GradeChangedEvent event) {
+        version++;
+        if (!initialized) {
+            return;
+        }
+        if (event.before() != null) {
+            apply(event.before(), -1);
+        }
+        if (event.after() != null) {
+            apply(event.after(), 1);
+        }
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        VersionedRebuild.run("course rank index", this, () -> version, gradeRepository::sumByCourseAndStudent, totals -> {
+            courses.clear();
+            for (StudentCourseTotals row : totals) {
+                CourseEntry course = courses.computeIfAbsent(row.getCourseId(), id -> new CourseEntry());
+                course.update(row.getStudentId(), row.getTotalScore(), row.getGradeCount());
+            }
+            initialized = true;
+        });
+
+        int courseCount;
+        synchronized (this) {
+            courseCount = courses.size();
+        }
+        log.info("Rebuilt course rank index for {} courses in {} ms", courseCount, System.currentTimeMillis() - start);
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Rebuilds when the tracked grade count or score sum of enrolments (grades with both a course
+     * and a student) differs from {@code persisted}, unless a grade changed since
+     * {@code sinceVersion}.
+     */
+    public void checkForDrift(GradeTotals persisted, long sinceVersion) {
+        long trackedCount = 0;
+        double trackedSum = 0;
+        synchronized (this) {
+            if (!initialized || version != sinceVersion) {
+                return;
+            }
+            for (CourseEntry course : courses.values()) {
+                for (Totals totals : course.students.values()) {
+                    trackedCount += totals.count;
+                    trackedSum += totals.sum;
+                }
+            }
+        }
+        if (!GradeDriftCheck.matches(trackedCount, trackedSum, persisted.getEnrolledCount(), persisted.getEnrolledSum())) {
+            log.warn("Course rank index drifted (tracked: {} grades, sum {}; persisted: {} grades, sum {}), rebuilding",
+                    trackedCount, trackedSum, persisted.getEnrolledCount(), persisted.getEnrolledSum());
+            rebuild();
+        }
+    }
+
+    /**
+     * The student's average in the course, if they have any grades there.
+     */
+    public synchronized OptionalDouble getStudentAverage(String courseId, String studentId) {
+        ensureInitialized();
+        CourseEntry course = courses.get(courseId);
+        if (course == null) {
+            return OptionalDouble.empty();
+        }
+        Totals totals = course.students.get(studentId);
+        return totals == null ? OptionalDouble.empty() : OptionalDouble.of(totals.average());
+    }
+
+    /**
+     * Percentile rank (0-100) of a course average among the students of the course, counting
+     * students with the same average as half below.
+     */
+    public synchronized double getPercentileRank(String courseId, double average) {
+        ensureInitialized();
+        ScoreFenwickTree tree = treeOf(courseId);
+        if (tree.getTotal() == 0) {
+            return 0.0;
+        }
+        double below = tree.countBelow(average) + tree.countAt(average) / 2.0;
+        return below * 100.0 / tree.getTotal();
+    }
+
+    /**
+     * Number of students whose course average is within {@code [min, max]}.
+     */
+    public synchronized long countStudentsBetween(String courseId, double min, double max) {
+        ensureInitialized();
+        return treeOf(courseId).countBetween(min, max);
+    }
+
+    /**
+     * Number of students in each of the given bucket ranges (inclusive bucket bounds).
+     */
+    public synchronized long[] countStudentsInBuckets(String courseId, int[] fromBuckets, int[] toBuckets) {
+        ensureInitialized();
+        ScoreFenwickTree tree = treeOf(courseId);
+        long[] counts = new long[fromBuckets.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = tree.countBetween(fromBuckets[i], toBuckets[i]);
+        }
+        return counts;
+    }
+
+    public synchronized long getStudentCount(String courseId) {
+        ensureInitialized();
+        return treeOf(courseId).getTotal();
+    }
+
+    private ScoreFenwickTree treeOf(String courseId) {
+        CourseEntry course = courses.get(courseId);
+        return course != null ? course.tree : EMPTY;
+    }
+
+    private void ensureInitialized() {
+        if (!initialized) {
+            rebuild();
+        }
+    }
+
+    private void apply(GradeSnapshot grade, int sign) {
+        if (grade.courseId() == null || grade.studentId() == null) {
+            return;
+        }
+        CourseEntry course = courses.computeIfAbsent(grade.courseId(), id -> new CourseEntry());
+        course.update(grade.studentId(), sign * grade.numericScore(), sign);
+        if (course.students.isEmpty()) {
+            courses.remove(grade.courseId());
+        }
+    }
+
+    private static class CourseEntry {
+        private final Map<String, Totals> students = new HashMap<>();
+        private final ScoreFenwickTree tree = new ScoreFenwickTree();
+
+        void update(String studentId, double scoreDelta, long countDelta) {
+            Totals totals = students.get(studentId);
+            if (totals != null) {
+                tree.add(totals.average(), -1);
+            } else {
+                totals = new Totals();
+                students.put(studentId, totals);
+            }
+
+            totals.sum += scoreDelta;
+            totals.count += countDelta;
+
+            if (totals.count > 0) {
+                tree.add(totals.average(), 1);
+            } else {
+                students.remove(studentId);
+            }
+        }
+    }
+
+    private static class Totals {
+        private double sum;
+        private long count;
+
+        double average() {
+            return sum / count;
+        }
+    }
+}
@@ -1,17 +1,26 @@
 package com.codealpha.gradetracker.service;
 
 import com.codealpha.gradetracker.dto.CourseDTO;
+import com.codealpha.gradetracker.event.CourseChangedEvent;
 import com.codealpha.gradetracker.exception.ResourceNotFoundException;
 import com.codealpha.gradetracker.model.Course;
 import com.codealpha.gradetracker.repository.CourseRepository;
 import com.codealpha.gradetracker.repository.GradeRepository;
+import com.codealpha.gradetracker.repository.projection.CourseGradeSummary;
+import com.codealpha.gradetracker.search.TrigramIndex;
+import com.codealpha.gradetracker.util.ChunkedSource;
+import com.codealpha.gradetracker.util.FieldSelection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,30 +29,110 @@ import java.util.stream.Collectors;
 public class CourseService {
 
     private final CourseRepository courseRepository;
+    private final CourseCache courseCache;
     private final GradeRepository gradeRepository;
+    private final SearchIndexService searchIndexService;
+    private final ApplicationEventPublisher eventPublisher;
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    // Selectable DTO properties; courses come whole from the cache, so none needs a projection
+    private static final Map<String, List<String>> FIELD_SOURCES = Map.ofEntries(
+            Map.entry("id", List.of()),
+            Map.entry("name", List.of()),
+            Map.entry("code", List.of()),
+            Map.entry("description", List.of()),
+            Map.entry("credits", List.of()),
+            Map.entry("active", List.of()),
+            Map.entry("createdAt", List.of()),
+            Map.entry("updatedAt", List.of()),
+            Map.entry("averageGrade", List.of()),
+            Map.entry("enrolledStudents", List.of()));
+
+    /**
+     * Every course with only the properties named in {@code fields} (all when null). Courses
+     * come from the cache; the grade aggregation only runs when averages or enrollment are asked for.
+     */
+    @Transactional(readOnly = true)
+    public List<CourseDTO> getAllCourses(String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, FIELD_SOURCES);
+        // Averages and enrollment for every course come from one grouped aggregation
+        Map<String, CourseGradeSummary> summaries = selection.includesAny("averageGrade", "enrolledStudents")
+                ? gradeRepository.summarizeCourses().stream()
+                        .collect(Collectors.toMap(CourseGradeSummary::getId, Function.identity()))
+                : Map.of();
+        return courseCache.findAll().stream()
+                .map(course -> convertToDTO(course, summaries.get(course.getId())))
+                .collect(Collectors.toList());
+    }
 
+    /**
+     * Every course in chunks. Courses come from the cache, so this only bounds how much is
+     * serialized at once; grade summaries are aggregated per chunk.
+     */
+    public ChunkedSource<CourseDTO> streamAllCourses() {
+        return ChunkedSource.of(() -> courseCache.findAll().stream(), STREAM_CHUNK_SIZE, courses -> {
+            Map<String, CourseGradeSummary> summaries = gradeRepository.summarizeCourses(
+                            courses.stream().map(Course::getId).toList()).stream()
+                    .collect(Collectors.toMap(CourseGradeSummary::getId, Function.identity()));
+            return courses.stream()
+                    .map(course -> convertToDTO(course, summaries.get(course.getId())))
+                    .collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * The courses with the given ids, in request order; unknown ids are left out. Courses come
+     * from the cache and are enriched with one grade aggregation.
+     */
     @Transactional(readOnly = true)
-    public List<CourseDTO> getAllCourses() {
-        return courseRepository.findAll().stream()
-                .map(this::convertToDTO)
+    public List<CourseDTO> getCoursesByIds(List<String> ids) {
+        List<String> distinctIds = ids.stream().distinct().toList();
+        Map<String, Course> courses = courseCache.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        Map<String, CourseGradeSummary> summaries = gradeRepository.summarizeCourses(courses.keySet()).stream()
+                .collect(Collectors.toMap(CourseGradeSummary::getId, Function.identity()));
+        return distinctIds.stream()
+                .map(courses::get)
+                .filter(Objects::nonNull)
+                .map(course -> convertToDTO(course, summaries.get(course.getId())))
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public CourseDTO getCourseById(String id) {
-        Course course = courseRepository.findById(id)
+        Course course = courseCache.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
         return convertToDTO(course);
     }
 
     @Transactional(readOnly = true)
     public CourseDTO getCourseByCode(String code) {
-        Course course = courseRepository.findByCode(code)
+        Course course = courseCache.findByCode(code)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with code: " + code));
         return convertToDTO(course);
     }
 
+    /**
+     * Courses whose name or code contains {@code query}, best matches first.
+     */
+    @Transactional(readOnly = true)
+    public List<CourseDTO> searchCourses(String query, int limit) {
+        List<String> ids = searchIndexService.searchCourses(query, limit).hits().stream()
+                .map(TrigramIndex.Hit::id)
+                .toList();
+
+        Map<String, Course> courses = courseCache.findAllById(ids).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        Map<String, CourseGradeSummary> summaries = gradeRepository.summarizeCourses(ids).stream()
+                .collect(Collectors.toMap(CourseGradeSummary::getId, Function.identity()));
+        return ids.stream()
+                .map(courses::get)
+                .filter(Objects::nonNull)
+                .map(course -> convertToDTO(course, summaries.get(course.getId())))
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public CourseDTO createCourse(CourseDTO courseDTO) {
         if (courseRepository.existsByCode(courseDTO.getCode())) {
@@ -59,6 +148,7 @@ public class CourseService {
                 .build();
 
         Course saved = courseRepository.save(course);
+        eventPublisher.publishEvent(CourseChangedEvent.saved(saved));
         log.info("Created new course: {}", saved.getCode());
         return convertToDTO(saved);
     }
@@ -84,6 +174,7 @@ public class CourseService {
         }
 
         Course updated = courseRepository.save(course);
+        eventPublisher.publishEvent(CourseChangedEvent.saved(updated));
         log.info("Updated course: {}", updated.getCode());
         return convertToDTO(updated);
     }
@@ -93,20 +184,18 @@ public class CourseService {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
         courseRepository.delete(course);
+        eventPublisher.publishEvent(CourseChangedEvent.deleted(course.getId()));
         log.info("Deleted course: {}", course.getCode());
     }
 
     private CourseDTO convertToDTO(Course course) {
-        var grades = gradeRepository.findByCourseId(course.getId());
-        Double avgGrade = grades.isEmpty() ? null : 
-            grades.stream()
-                .mapToDouble(g -> g.getNumericScore())
-                .average()
-                .orElse(0.0);
-        long enrolledStudents = grades.stream()
-                .map(grade -> grade.getStudentId())
-                .distinct()
-                .count();
+        List<CourseGradeSummary> summaries = gradeRepository.summarizeCourses(List.of(course.getId()));
+        return convertToDTO(course, summaries.isEmpty() ? null : summaries.get(0));
+    }
+
+    private CourseDTO convertToDTO(Course course, CourseGradeSummary grades) {
+        Double avgGrade = grades == null ? null : grades.getAverageGrade();
+        long enrolledStudents = grades == null ? 0 : grades.getEnrolledStudents();
 
         return CourseDTO.builder()
                 .id(course.getId())
@@ -0,0 +1,61 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.event.StudentChangedEvent;
+import com.codealpha.gradetracker.model.Student;
+import com.codealpha.gradetracker.repository.projection.CourseSummary;
+import com.codealpha.gradetracker.repository.projection.StudentSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves student and course display fields for a set of ids from the {@link StudentSummaryCache}
+ * and the {@link CourseCache}. Callers should collect the ids of the rows they actually return and
+ * resolve them together instead of looking entities up one row at a time; within a request, ids
+ * resolved earlier are not looked up again (see {@link RequestIdentityMap}).
+ */
+@Service
+@RequiredArgsConstructor
+public class EntityLookupService {
+
+    private final StudentSummaryCache studentSummaryCache;
+    private final CourseCache courseCache;
+    private final RequestIdentityMap identityMap;
+
+    // Each student is resolved once per request, then from the summary cache, then with one $in query
+    public Map<String, StudentSummary> findStudents(Collection<String> ids) {
+        return identityMap.getAll(StudentSummary.class, distinct(ids), studentSummaryCache::findAll);
+    }
+
+    /**
+     * Makes a student the caller has already loaded available to later lookups in the request.
+     */
+    public void remember(Student student) {
+        identityMap.put(StudentSummary.class, student.getId(), StudentSummary.of(student));
+    }
+
+    @EventListener
+    public void onStudentChanged(StudentChangedEvent event) {
+        identityMap.remove(StudentSummary.class, event.studentId());
+    }
+
+    // Served from the course cache without a query
+    public Map<String, CourseSummary> findCourses(Collection<String> ids) {
+        return courseCache.findSummaries(distinct(ids));
+    }
+
+    private static Set<String> distinct(Collection<String> ids) {
+        Set<String> distinctIds = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null) {
+                distinctIds.add(id);
+            }
+        }
+        return distinctIds;
+    }
+}
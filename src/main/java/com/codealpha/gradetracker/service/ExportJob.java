@@ -0,0 +1,112 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.dto.ExportJobDTO;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The state of one asynchronous export. Written by the worker running it and read by pollers,
+ * so every mutable field is volatile.
+ */
+class ExportJob {
+
+    private final String id;
+    private final String owner;
+    private final ExportJobDTO.Type type;
+    private final String studentId;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    private volatile ExportJobDTO.Status status = ExportJobDTO.Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime completedAt;
+    private volatile LocalDateTime expiresAt;
+    private volatile String error;
+    private volatile Path artifact;
+
+    ExportJob(String id, String owner, ExportJobDTO.Type type, String studentId) {
+        this.id = id;
+        this.owner = owner;
+        this.type = type;
+        this.studentId = studentId;
+    }
+
+    void start() {
+        startedAt = LocalDateTime.now();
+        status = ExportJobDTO.Status.RUNNING;
+    }
+
+    void addBytes(long count) {
+        bytesWritten.addAndGet(count);
+    }
+
+    void complete(Path artifact, LocalDateTime expiresAt) {
+        this.artifact = artifact;
+        finish(ExportJobDTO.Status.COMPLETED, expiresAt);
+    }
+
+    void fail(String error, LocalDateTime expiresAt) {
+        this.error = error;
+        finish(ExportJobDTO.Status.FAILED, expiresAt);
+    }
+
+    private void finish(ExportJobDTO.Status status, LocalDateTime expiresAt) {
+        this.completedAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+        // Written last so a poller that sees the final status also sees the fields above
+        this.status = status;
+    }
+
+    boolean isActive() {
+        return status == ExportJobDTO.Status.QUEUED || status == ExportJobDTO.Status.RUNNING;
+    }
+
+    boolean isExpired(LocalDateTime now) {
+        LocalDateTime expiry = expiresAt;
+        return expiry != null && !expiry.isAfter(now);
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getOwner() {
+        return owner;
+    }
+
+    ExportJobDTO.Type getType() {
+        return type;
+    }
+
+    ExportJobDTO.Status getStatus() {
+        return status;
+    }
+
+    Path getArtifact() {
+        return artifact;
+    }
+
+    String getFileName() {
+        String base = studentId != null ? "student_" + studentId + "_grades" : type.name().toLowerCase();
+        return base + "." + type.getExtension();
+    }
+
+    ExportJobDTO toDTO() {
+        ExportJobDTO.Status current = status;
+        return ExportJobDTO.builder()
+                .id(id)
+                .type(type)
+                .studentId(studentId)
+                .status(current)
+                .bytesWritten(bytesWritten.get())
+                .error(error)
+                .createdAt(createdAt)
+                .startedAt(startedAt)
+                .completedAt(completedAt)
+                .expiresAt(expiresAt)
+                .downloadUrl(current == ExportJobDTO.Status.COMPLETED ? "/api/export/jobs/" + id + "/download" : null)
+                .build();
+    }
+}
@@ -0,0 +1,255 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.dto.ExportJobDTO;
+import com.codealpha.gradetracker.dto.ExportJobRequest;
+import com.codealpha.gradetracker.exception.ConflictException;
+import com.codealpha.gradetracker.exception.ResourceNotFoundException;
+import com.codealpha.gradetracker.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Runs exports in the background so large reports are not tied to a request (and a proxy
+ * timeout). Jobs run on a small fixed pool with a bounded queue, write their artifact to
+ * {@code app.export.jobs.directory} and are kept, with the artifact, for
+ * {@code app.export.jobs.ttl-ms} after they finish. Each user may have only a few jobs queued
+ * or running at once.
+ * <p>
+ * Jobs live in memory. On startup, artifacts left behind by an earlier run (files named after a
+ * job id and untouched for longer than the TTL) are deleted; anything else in the directory,
+ * including fresh artifacts of another instance sharing it, is left alone.
+ */
+@Service
+@Slf4j
+public class ExportJobService {
+
+    // <job id>.part while running, <job id>.<extension> once completed
+    private static final Pattern ARTIFACT_NAME = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.(part|csv|pdf|zip)");
+
+    private final ExportService exportService;
+    private final Path directory;
+    private final Duration ttl;
+    private final int maxActivePerUser;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    public ExportJobService(ExportService exportService,
+                            @Value("${app.export.jobs.directory:${java.io.tmpdir}/gradetracker-exports}") String directory,
+                            @Value("${app.export.jobs.pool-size:2}") int poolSize,
+                            @Value("${app.export.jobs.queue-capacity:20}") int queueCapacity,
+                            @Value("${app.export.jobs.max-active-per-user:2}") int maxActivePerUser,
+                            @Value("${app.export.jobs.ttl-ms:3600000}") long ttlMs) {
+        this.exportService = exportService;
+        this.directory = Paths.get(directory);
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.maxActivePerUser = maxActivePerUser;
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> new Thread(task, "export-job-" + threads.incrementAndGet()));
+        prepareDirectory();
+    }
+
+    /**
+     * Validates the request and queues the export. Problems with the request itself (an unknown
+     * student, a student without grades) are reported here rather than as a failed job.
+     *
+     * @throws TooManyRequestsException when the user already has the maximum number of active
+     *                                  jobs or the queue is full
+     */
+    public ExportJobDTO submit(ExportJobRequest request, String owner) {
+        StreamingResponseBody body = open(request);
+        // Only the per-student export has a student; it ends up in the download's file name
+        String studentId = request.getType() == ExportJobDTO.Type.STUDENT_GRADES_CSV ? request.getStudentId() : null;
+
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), owner, request.getType(), studentId);
+        synchronized (this) {
+            long active = jobs.values().stream()
+                    .filter(existing -> existing.getOwner().equals(owner) && existing.isActive())
+                    .count();
+            if (active >= maxActivePerUser) {
+                throw new TooManyRequestsException(
+                        "At most " + maxActivePerUser + " export jobs can be queued or running per user");
+            }
+            jobs.put(job.getId(), job);
+        }
+
+        try {
+            executor.execute(() -> run(job, body));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new TooManyRequestsException("The export queue is full, try again later");
+        }
+        log.info("Queued export job {} ({}) for {}", job.getId(), job.getType(), owner);
+        return job.toDTO();
+    }
+
+    public ExportJobDTO getJob(String id, String owner) {
+        return find(id, owner).toDTO();
+    }
+
+    /**
+     * The finished artifact of a job.
+     *
+     * @throws ConflictException when the job has not completed successfully
+     */
+    public Artifact getArtifact(String id, String owner) {
+        ExportJob job = find(id, owner);
+        if (job.getStatus() != ExportJobDTO.Status.COMPLETED) {
+            throw new ConflictException("Export job " + id + " is " + job.getStatus());
+        }
+        return new Artifact(job.getArtifact(), job.getFileName(), job.getType().getContentType());
+    }
+
+    public record Artifact(Path path, String fileName, String contentType) {
+    }
+
+    // Finished jobs and their artifacts are dropped once their TTL has passed
+    @Scheduled(
+            initialDelayString = "${app.export.jobs.sweep-interval-ms:300000}",
+            fixedDelayString = "${app.export.jobs.sweep-interval-ms:300000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        jobs.values().removeIf(job -> {
+            if (!job.isExpired(now)) {
+                return false;
+            }
+            delete(job.getArtifact());
+            log.debug("Removed expired export job {}", job.getId());
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private StreamingResponseBody open(ExportJobRequest request) {
+        return switch (request.getType()) {
+            case STUDENTS_CSV -> exportService.exportStudentsToCSV();
+            case GRADES_CSV -> exportService.exportGradesToCSV();
+            case GRADES_PDF -> exportService.exportGradesToPDF();
+            case REPORT_CARDS_ZIP -> exportService.exportReportCards();
+            case STUDENT_GRADES_CSV -> {
+                if (request.getStudentId() == null || request.getStudentId().isBlank()) {
+                    throw new IllegalArgumentException("Student ID is required for " + request.getType());
+                }
+                // Checks that the student exists, so only a known id reaches the file name
+                yield exportService.exportStudentGradesToCSV(request.getStudentId());
+            }
+        };
+    }
+
+    private void run(ExportJob job, StreamingResponseBody body) {
+        job.start();
+        Path partial = directory.resolve(job.getId() + ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(new CountingOutputStream(Files.newOutputStream(partial), job))) {
+                body.writeTo(out);
+            }
+            Path artifact = Files.move(partial, directory.resolve(job.getId() + "." + job.getType().getExtension()),
+                    StandardCopyOption.REPLACE_EXISTING);
+            job.complete(artifact, LocalDateTime.now().plus(ttl));
+            log.info("Export job {} completed", job.getId());
+        } catch (Exception e) {
+            delete(partial);
+            job.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName(), LocalDateTime.now().plus(ttl));
+            log.warn("Export job {} failed", job.getId(), e);
+        }
+    }
+
+    // Unknown ids and other users' jobs look the same, so job ids cannot be probed
+    private ExportJob find(String id, String owner) {
+        ExportJob job = jobs.get(id);
+        if (job == null || !job.getOwner().equals(owner)) {
+            throw new ResourceNotFoundException("Export job not found with id: " + id);
+        }
+        return job;
+    }
+
+    private void prepareDirectory() {
+        try {
+            Files.createDirectories(directory);
+            FileTime cutoff = FileTime.from(Instant.now().minus(ttl));
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> ARTIFACT_NAME.matcher(file.getFileName().toString()).matches())
+                        .filter(file -> isOlderThan(file, cutoff))
+                        .forEach(ExportJobService::delete);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare export directory " + directory, e);
+        }
+    }
+
+    private static boolean isOlderThan(Path file, FileTime cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).compareTo(cutoff) < 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void delete(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete export artifact {}", path, e);
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private final ExportJob job;
+
+        CountingOutputStream(OutputStream out, ExportJob job) {
+            super(out);
+            this.job = job;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            job.addBytes(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            job.addBytes(len);
+        }
+    }
+}
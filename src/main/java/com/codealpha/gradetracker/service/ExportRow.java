@@ -0,0 +1,13 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.model.Grade;
+import com.codealpha.gradetracker.repository.projection.CourseSummary;
+import com.codealpha.gradetracker.repository.projection.StudentSummary;
+
+/**
+ * A grade with the student and course it refers to. References that no longer resolve are
+ * filled with placeholders, so a dangling id shows up as an "Unknown" row instead of failing
+ * the export.
+ */
+record ExportRow(Grade grade, StudentSummary student, CourseSummary course) {
+}
@@ -1,9 +1,14 @@
 package com.codealpha.gradetracker.service;
 
+import com.codealpha.gradetracker.exception.ResourceNotFoundException;
 import com.codealpha.gradetracker.model.Grade;
 import com.codealpha.gradetracker.model.Student;
 import com.codealpha.gradetracker.repository.GradeRepository;
 import com.codealpha.gradetracker.repository.StudentRepository;
+import com.codealpha.gradetracker.repository.projection.CourseSummary;
+import com.codealpha.gradetracker.repository.projection.StudentSummary;
+import com.codealpha.gradetracker.statistics.ScoreStatistics;
+import com.codealpha.gradetracker.util.ChunkedSource;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
@@ -17,13 +22,25 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipOutputStream;
 
 @Service
 @RequiredArgsConstructor
@@ -32,113 +49,199 @@ public class ExportService {
 
     private final StudentRepository studentRepository;
     private final GradeRepository gradeRepository;
+    private final EntityLookupService entityLookupService;
+    private final RequestCoalescer requestCoalescer;
+    private final ReportCardRenderer reportCardRenderer;
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-    @Transactional(readOnly = true)
-    public String exportStudentsToCSV() throws IOException {
-        List<Student> students = studentRepository.findAll();
-        StringWriter sw = new StringWriter();
-
-        try (CSVPrinter printer = new CSVPrinter(sw, CSVFormat.DEFAULT
-                .withHeader("ID", "First Name", "Last Name", "Email", "Phone", "Enrollment ID", "Active", "Created At"))) {
-            
-            for (Student student : students) {
-                printer.printRecord(
-                        student.getId(),
-                        student.getFirstName(),
-                        student.getLastName(),
-                        student.getEmail(),
-                        student.getPhoneNumber(),
-                        student.getEnrollmentId(),
-                        student.getActive(),
-                        student.getCreatedAt() != null ? student.getCreatedAt().format(FORMATTER) : ""
-                );
+    // Rows read and written between flushes; names are resolved once per chunk
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
+    /**
+     * All students as CSV, written row by row from a cursor.
+     */
+    public StreamingResponseBody exportStudentsToCSV() {
+        return out -> {
+            long count = 0;
+            try (Stream<Student> students = studentRepository.streamAllBy();
+                 CSVPrinter printer = csvPrinter(out, CSVFormat.DEFAULT
+                         .withHeader("ID", "First Name", "Last Name", "Email", "Phone", "Enrollment ID", "Active", "Created At"))) {
+
+                Iterator<Student> rows = students.iterator();
+                while (rows.hasNext()) {
+                    Student student = rows.next();
+                    printer.printRecord(
+                            student.getId(),
+                            student.getFirstName(),
+                            student.getLastName(),
+                            student.getEmail(),
+                            student.getPhoneNumber(),
+                            student.getEnrollmentId(),
+                            student.getActive(),
+                            student.getCreatedAt() != null ? student.getCreatedAt().format(FORMATTER) : ""
+                    );
+                    if (++count % EXPORT_CHUNK_SIZE == 0) {
+                        printer.flush();
+                    }
+                }
             }
-        }
-
-        log.info("Exported {} students to CSV", students.size());
-        return sw.toString();
+            log.info("Exported {} students to CSV", count);
+        };
     }
 
-    @Transactional(readOnly = true)
-    public String exportGradesToCSV() throws IOException {
-        List<Grade> grades = gradeRepository.findAll();
-        StringWriter sw = new StringWriter();
-
-        try (CSVPrinter printer = new CSVPrinter(sw, CSVFormat.DEFAULT
-                .withHeader("ID", "Student Name", "Student Email", "Course Code", "Course Name", 
-                           "Score", "Letter Grade", "Assessment", "Date", "Status"))) {
-            
-            for (Grade grade : grades) {
-                printer.printRecord(
-                        grade.getId(),
-                        grade.getStudent().getFullName(),
-                        grade.getStudent().getEmail(),
-                        grade.getCourse().getCode(),
-                        grade.getCourse().getName(),
-                        grade.getNumericScore(),
-                        grade.getLetterGrade(),
-                        grade.getAssessment(),
-                        grade.getGradeDate(),
-                        grade.getGradeStatus()
-                );
+    /**
+     * All grades as CSV, read from a cursor in chunks and joined with student and course names.
+     */
+    public StreamingResponseBody exportGradesToCSV() {
+        ChunkedSource<ExportRow> grades = joinedGrades(gradeRepository::streamAllBy);
+        return out -> {
+            long count;
+            try (CSVPrinter printer = csvPrinter(out, CSVFormat.DEFAULT
+                    .withHeader("ID", "Student Name", "Student Email", "Course Code", "Course Name",
+                            "Score", "Letter Grade", "Assessment", "Date", "Status"))) {
+
+                count = printChunks(grades, printer, chunk -> {
+                    for (ExportRow row : chunk) {
+                        Grade grade = row.grade();
+                        printer.printRecord(
+                                grade.getId(),
+                                row.student().getFullName(),
+                                row.student().getEmail(),
+                                row.course().getCode(),
+                                row.course().getName(),
+                                grade.getNumericScore(),
+                                grade.getLetterGrade(),
+                                grade.getAssessment(),
+                                grade.getGradeDate(),
+                                grade.getGradeStatus()
+                        );
+                    }
+                });
             }
-        }
-
-        log.info("Exported {} grades to CSV", grades.size());
-        return sw.toString();
+            log.info("Exported {} grades to CSV", count);
+        };
     }
 
-    @Transactional(readOnly = true)
-    public String exportStudentGradesToCSV(String studentId) throws IOException {
-        List<Grade> grades = gradeRepository.findByStudentId(studentId);
-        if (grades.isEmpty()) {
+    /**
+     * One student's grades as CSV, read from a cursor. The student is checked before the
+     * response starts, so a missing student or an empty record is still reported as an error.
+     */
+    public StreamingResponseBody exportStudentGradesToCSV(String studentId) {
+        if (gradeRepository.countByStudentId(studentId) == 0) {
             throw new IllegalArgumentException("No grades found for student ID: " + studentId);
         }
+        Student student = findStudent(studentId);
+        ChunkedSource<ExportRow> grades = joinedGrades(() -> gradeRepository.streamByStudentId(studentId));
+
+        return out -> {
+            try (CSVPrinter printer = csvPrinter(out, CSVFormat.DEFAULT
+                    .withHeader("Student: " + student.getFullName() + " (" + student.getEmail() + ")")
+                    .withSkipHeaderRecord(false))) {
+
+                printer.printRecord(); // Empty line
+                printer.printRecord("Course Code", "Course Name", "Score", "Letter Grade", "Assessment", "Date", "Status");
+
+                ScoreStatistics.Accumulator scores = ScoreStatistics.accumulator();
+                printChunks(grades, printer, chunk -> {
+                    for (ExportRow row : chunk) {
+                        Grade grade = row.grade();
+                        scores.add(grade.getNumericScore());
+                        printer.printRecord(
+                                row.course().getCode(),
+                                row.course().getName(),
+                                grade.getNumericScore(),
+                                grade.getLetterGrade(),
+                                grade.getAssessment(),
+                                grade.getGradeDate(),
+                                grade.getGradeStatus()
+                        );
+                    }
+                });
+
+                // Add statistics
+                ScoreStatistics statistics = scores.build();
+                printer.printRecord();
+                printer.printRecord("Total Grades", statistics.getCount());
+                printer.printRecord("Average Score", String.format("%.2f", statistics.getMean()));
+            }
+            log.info("Exported grades for student: {}", student.getEmail());
+        };
+    }
 
-        StringWriter sw = new StringWriter();
-        Student student = grades.get(0).getStudent();
-
-        try (CSVPrinter printer = new CSVPrinter(sw, CSVFormat.DEFAULT
-                .withHeader("Student: " + student.getFullName() + " (" + student.getEmail() + ")")
-                .withSkipHeaderRecord(false))) {
-            
-            printer.printRecord(); // Empty line
-            printer.printRecord("Course Code", "Course Name", "Score", "Letter Grade", "Assessment", "Date", "Status");
-
-            for (Grade grade : grades) {
-                printer.printRecord(
-                        grade.getCourse().getCode(),
-                        grade.getCourse().getName(),
-                        grade.getNumericScore(),
-                        grade.getLetterGrade(),
-                        grade.getAssessment(),
-                        grade.getGradeDate(),
-                        grade.getGradeStatus()
-                );
+    // Reads grades in chunks and resolves each chunk's distinct student and course ids together
+    private ChunkedSource<ExportRow> joinedGrades(Supplier<Stream<Grade>> grades) {
+        return ChunkedSource.of(grades, EXPORT_CHUNK_SIZE, this::join);
+    }
+
+    private List<ExportRow> join(List<Grade> chunk) {
+        Map<String, StudentSummary> students = entityLookupService.findStudents(
+                chunk.stream().map(Grade::getStudentId).toList());
+        Map<String, CourseSummary> courses = entityLookupService.findCourses(
+                chunk.stream().map(Grade::getCourseId).toList());
+
+        List<ExportRow> rows = new ArrayList<>(chunk.size());
+        int dangling = 0;
+        for (Grade grade : chunk) {
+            StudentSummary student = students.get(grade.getStudentId());
+            CourseSummary course = courses.get(grade.getCourseId());
+            if (student == null || course == null) {
+                dangling++;
             }
+            rows.add(new ExportRow(grade,
+                    student != null ? student : StudentSummary.missing(grade.getStudentId()),
+                    course != null ? course : CourseSummary.missing(grade.getCourseId())));
+        }
+        if (dangling > 0) {
+            log.warn("Exporting {} grades with a missing student or course", dangling);
+        }
+        return rows;
+    }
 
-            // Add statistics
-            Double average = grades.stream()
-                    .mapToDouble(Grade::getNumericScore)
-                    .average()
-                    .orElse(0.0);
+    @FunctionalInterface
+    private interface ChunkPrinter<T> {
+        void print(List<T> chunk) throws IOException;
+    }
 
-            printer.printRecord();
-            printer.printRecord("Total Grades", grades.size());
-            printer.printRecord("Average Score", String.format("%.2f", average));
+    // Prints every chunk and flushes after each, so the client receives rows while the cursor is read
+    private static <T> long printChunks(ChunkedSource<T> rows, CSVPrinter printer, ChunkPrinter<T> chunkPrinter)
+            throws IOException {
+        long[] count = {0};
+        try {
+            rows.forEachChunk(chunk -> {
+                try {
+                    chunkPrinter.print(chunk);
+                    printer.flush();
+                    count[0] += chunk.size();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+        return count[0];
+    }
 
-        log.info("Exported grades for student: {}", student.getEmail());
-        return sw.toString();
+    private static CSVPrinter csvPrinter(OutputStream out, CSVFormat format) throws IOException {
+        return new CSVPrinter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), format);
     }
 
-    @Transactional(readOnly = true)
-    public byte[] exportGradesToPDF() throws IOException {
-        List<Grade> grades = gradeRepository.findAll();
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    /**
+     * All grades as a PDF, written to the response while the cursor is read. The table is a
+     * large table: rows are flushed to the document after every chunk and finished pages are
+     * written out, so neither the layout nor the output is held for the whole report.
+     */
+    public StreamingResponseBody exportGradesToPDF() {
+        return this::writeGradesToPDF;
+    }
+
+    private void writeGradesToPDF(OutputStream out) throws IOException {
+        ChunkedSource<ExportRow> grades = joinedGrades(gradeRepository::streamAllBy);
+        long[] count = {0};
+        PdfWriter writer = new PdfWriter(out);
+        // The caller owns the output stream
+        writer.setCloseStream(false);
 
-        try (PdfWriter writer = new PdfWriter(baos);
+        try (writer;
              PdfDocument pdf = new PdfDocument(writer);
              Document document = new Document(pdf)) {
 
@@ -159,7 +262,7 @@ public class ExportService {
 
             // Table
             float[] columnWidths = {1, 3, 3, 2, 2, 2, 2};
-            Table table = new Table(UnitValue.createPercentArray(columnWidths));
+            Table table = new Table(UnitValue.createPercentArray(columnWidths), true);
             table.setWidth(UnitValue.createPercentValue(100));
 
             // Headers
@@ -170,100 +273,98 @@ public class ExportService {
             table.addHeaderCell("Grade");
             table.addHeaderCell("Date");
             table.addHeaderCell("Status");
+            // Added before any rows so each flush lays out only the rows added since the last one
+            document.add(table);
 
             // Data
-            for (Grade grade : grades) {
-                table.addCell(grade.getId().toString());
-                table.addCell(grade.getStudent().getFullName());
-                table.addCell(grade.getCourse().getName());
-                table.addCell(grade.getNumericScore().toString());
-                table.addCell(grade.getLetterGrade());
-                table.addCell(grade.getGradeDate().toString());
-                table.addCell(grade.getGradeStatus());
-            }
-
-            document.add(table);
+            grades.forEachChunk(chunk -> {
+                for (ExportRow row : chunk) {
+                    Grade grade = row.grade();
+                    table.addCell(grade.getId());
+                    table.addCell(row.student().getFullName());
+                    table.addCell(row.course().getName());
+                    table.addCell(grade.getNumericScore().toString());
+                    table.addCell(grade.getLetterGrade());
+                    table.addCell(cellText(grade.getGradeDate()));
+                    table.addCell(grade.getGradeStatus());
+                }
+                count[0] += chunk.size();
+                table.flush();
+            });
+            table.complete();
 
             // Footer
             document.add(new Paragraph("\n"));
-            Paragraph footer = new Paragraph("Total Records: " + grades.size())
+            Paragraph footer = new Paragraph("Total Records: " + count[0])
                     .setFontSize(10)
                     .setTextAlignment(TextAlignment.RIGHT);
             document.add(footer);
         }
 
-        log.info("Exported {} grades to PDF", grades.size());
-        return baos.toByteArray();
+        log.info("Exported {} grades to PDF", count[0]);
     }
 
     @Transactional(readOnly = true)
     public byte[] exportStudentGradesToPDF(String studentId) throws IOException {
-        List<Grade> grades = gradeRepository.findByStudentId(studentId);
-        if (grades.isEmpty()) {
+        return requestCoalescer.execute("export.student.pdf", studentId, () -> writeStudentGradesToPDF(studentId));
+    }
+
+    private byte[] writeStudentGradesToPDF(String studentId) throws IOException {
+        if (gradeRepository.countByStudentId(studentId) == 0) {
             throw new IllegalArgumentException("No grades found for student ID: " + studentId);
         }
 
-        Student student = grades.get(0).getStudent();
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-        try (PdfWriter writer = new PdfWriter(baos);
-             PdfDocument pdf = new PdfDocument(writer);
-             Document document = new Document(pdf)) {
-
-            // Title
-            Paragraph title = new Paragraph("Student Grade Report")
-                    .setFontSize(20)
-                    .setBold()
-                    .setTextAlignment(TextAlignment.CENTER);
-            document.add(title);
-
-            // Student Info
-            document.add(new Paragraph("\n"));
-            document.add(new Paragraph("Student: " + student.getFullName()).setBold());
-            document.add(new Paragraph("Email: " + student.getEmail()));
-            document.add(new Paragraph("Enrollment ID: " + student.getEnrollmentId()));
-            document.add(new Paragraph("Report Generated: " + LocalDateTime.now().format(FORMATTER)));
-            document.add(new Paragraph("\n"));
+        Student student = findStudent(studentId);
+        entityLookupService.remember(student);
+        List<ExportRow> rows = new ArrayList<>();
+        joinedGrades(() -> gradeRepository.streamByStudentId(studentId)).forEachChunk(rows::addAll);
 
-            // Table
-            float[] columnWidths = {3, 3, 2, 2, 2, 2};
-            Table table = new Table(UnitValue.createPercentArray(columnWidths));
-            table.setWidth(UnitValue.createPercentValue(100));
+        byte[] pdf = ReportCardRenderer.render(StudentSummary.of(student), rows);
+        log.info("Exported PDF report for student: {}", student.getEmail());
+        return pdf;
+    }
 
-            // Headers
-            table.addHeaderCell("Course Code");
-            table.addHeaderCell("Course Name");
-            table.addHeaderCell("Score");
-            table.addHeaderCell("Grade");
-            table.addHeaderCell("Assessment");
-            table.addHeaderCell("Date");
+    /**
+     * A grade report PDF for every student with grades, in one ZIP. Grades are read once, sorted
+     * by student, and each student's report is rendered in parallel and added to the ZIP as soon
+     * as it is finished, so entries are not in any particular order.
+     */
+    public StreamingResponseBody exportReportCards() {
+        return this::writeReportCards;
+    }
 
-            // Data
-            for (Grade grade : grades) {
-                table.addCell(grade.getCourse().getCode());
-                table.addCell(grade.getCourse().getName());
-                table.addCell(grade.getNumericScore().toString());
-                table.addCell(grade.getLetterGrade());
-                table.addCell(grade.getAssessment() != null ? grade.getAssessment() : "N/A");
-                table.addCell(grade.getGradeDate().toString());
+    private void writeReportCards(OutputStream out) throws IOException {
+        ChunkedSource<ExportRow> grades = joinedGrades(gradeRepository::streamAllByOrderByStudentIdAsc);
+        int count;
+
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out))) {
+            // PDFs are compressed already
+            zip.setLevel(Deflater.BEST_SPEED);
+            ReportCardRenderer.ZipWriter reportCards = reportCardRenderer.zipWriter(zip);
+            try {
+                grades.forEachChunk(chunk -> {
+                    try {
+                        for (ExportRow row : chunk) {
+                            reportCards.add(row);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
             }
-
-            document.add(table);
-
-            // Statistics
-            document.add(new Paragraph("\n"));
-            Double average = grades.stream().mapToDouble(Grade::getNumericScore).average().orElse(0.0);
-            Double highest = grades.stream().mapToDouble(Grade::getNumericScore).max().orElse(0.0);
-            Double lowest = grades.stream().mapToDouble(Grade::getNumericScore).min().orElse(0.0);
-
-            document.add(new Paragraph("Statistics:").setBold());
-            document.add(new Paragraph("Total Grades: " + grades.size()));
-            document.add(new Paragraph(String.format("Average Score: %.2f", average)));
-            document.add(new Paragraph(String.format("Highest Score: %.2f", highest)));
-            document.add(new Paragraph(String.format("Lowest Score: %.2f", lowest)));
+            count = reportCards.finish();
         }
+        log.info("Exported {} report cards", count);
+    }
 
-        log.info("Exported PDF report for student: {}", student.getEmail());
-        return baos.toByteArray();
+    private static String cellText(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private Student findStudent(String studentId) {
+        return studentRepository.findById(studentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
     }
 }
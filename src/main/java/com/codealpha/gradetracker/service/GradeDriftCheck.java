@@ -0,0 +1,46 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.repository.GradeRepository;
+import com.codealpha.gradetracker.repository.projection.GradeTotals;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically compares the grade count and score sum tracked by each event-maintained structure
+ * with the collection, using one aggregation for all of them, and rebuilds whichever drifted.
+ * Comparing sums as well as counts catches a lost score update, which leaves the count intact.
+ */
+@Component
+@RequiredArgsConstructor
+public class GradeDriftCheck {
+
+    private final GradeRepository gradeRepository;
+    private final GradeStatisticsAggregate gradeStatisticsAggregate;
+    private final CourseRankIndex courseRankIndex;
+    private final LeaderboardService leaderboardService;
+
+    @Scheduled(
+            initialDelayString = "${app.statistics.drift-check-interval-ms:300000}",
+            fixedDelayString = "${app.statistics.drift-check-interval-ms:300000}")
+    public void check() {
+        // A structure that sees a write while the collection is read skips this round
+        long aggregateVersion = gradeStatisticsAggregate.getVersion();
+        long rankIndexVersion = courseRankIndex.getVersion();
+        long leaderboardVersion = leaderboardService.getVersion();
+
+        GradeTotals persisted = gradeRepository.sumScores();
+
+        gradeStatisticsAggregate.checkForDrift(persisted, aggregateVersion);
+        courseRankIndex.checkForDrift(persisted, rankIndexVersion);
+        leaderboardService.checkForDrift(persisted, leaderboardVersion);
+    }
+
+    /**
+     * Whether tracked totals match persisted ones, allowing for rounding in running sums.
+     */
+    static boolean matches(long trackedCount, double trackedSum, long persistedCount, double persistedSum) {
+        return trackedCount == persistedCount
+                && Math.abs(trackedSum - persistedSum) <= 1e-6 * Math.max(1.0, Math.abs(persistedSum));
+    }
+}
@@ -0,0 +1,189 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.event.GradeChangedEvent;
+import com.codealpha.gradetracker.event.GradeSnapshot;
+import com.codealpha.gradetracker.model.GradeRollup;
+import com.codealpha.gradetracker.model.GradeRollup.Granularity;
+import com.codealpha.gradetracker.repository.GradeRepository;
+import com.codealpha.gradetracker.repository.GradeRollupRepository;
+import com.codealpha.gradetracker.repository.projection.DailyCourseTotals;
+import com.codealpha.gradetracker.statistics.ScoreStatistics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the day, week and term rollups of grades per course and answers date-range queries
+ * by merging the fewest buckets that exactly cover the range.
+ * <p>
+ * Every grade write is applied to its three buckets as atomic {@code $inc} upserts, so the
+ * rollups need no in-memory state. They are rebuilt from a grouped aggregation on startup when
+ * the daily buckets no longer account for every dated grade; the rebuild replaces buckets in
+ * place and rescans when grades change under it, see {@link VersionedRebuild}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GradeRollupService {
+
+    // Widest first, so a range is covered by as few buckets as possible
+    private static final Granularity[] COVER_ORDER = {Granularity.TERM, Granularity.WEEK, Granularity.DAY};
+
+    private final GradeRepository gradeRepository;
+    private final GradeRollupRepository gradeRollupRepository;
+
+    // Guards version and keeps deltas from landing between a rebuild's scan check and its write
+    private final Object lock = new Object();
+    private long version;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        long rolledUp = gradeRollupRepository.sumCounts(Granularity.DAY);
+        long persisted = gradeRepository.countDatedCourseGrades();
+        if (rolledUp != persisted) {
+            log.info("Grade rollups cover {} of {} grades, rebuilding", rolledUp, persisted);
+            rebuild();
+        }
+    }
+
+    @EventListener
+    public void onGradeChanged(GradeChangedEvent event) {
+        // Keyed by bucket id so an update that stays in the same buckets is a single write each
+        Map<String, GradeRollup> deltas = new LinkedHashMap<>();
+        if (event.before() != null) {
+            addDeltas(deltas, event.before(), -1);
+        }
+        if (event.after() != null) {
+            addDeltas(deltas, event.after(), 1);
+        }
+        synchronized (lock) {
+            version++;
+            gradeRollupRepository.applyDeltas(deltas.values());
+        }
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        VersionedRebuild.run("grade rollups", lock, () -> version, this::scan, rollups -> {
+            gradeRollupRepository.replaceAll(rollups.values());
+            log.info("Rebuilt {} grade rollups in {} ms", rollups.size(), System.currentTimeMillis() - start);
+        });
+    }
+
+    private Map<String, GradeRollup> scan() {
+        Map<String, GradeRollup> rollups = new LinkedHashMap<>();
+        for (DailyCourseTotals day : gradeRepository.sumByDayAndCourse()) {
+            for (Granularity granularity : Granularity.values()) {
+                GradeRollup rollup = rollups.computeIfAbsent(
+                        GradeRollup.idOf(granularity, granularity.bucketStart(day.getGradeDate()), day.getCourseId()),
+                        id -> emptyRollup(granularity, day.getGradeDate(), day.getCourseId()));
+                add(rollup, day);
+            }
+        }
+        return rollups;
+    }
+
+    /**
+     * Buckets that together cover exactly the days {@code from..to}, for one course or for all
+     * courses when {@code courseId} is null.
+     */
+    public List<GradeRollup> findCovering(LocalDate from, LocalDate to, String courseId) {
+        Map<Granularity, List<LocalDate>> cover = new EnumMap<>(Granularity.class);
+        LocalDate day = from;
+        while (!day.isAfter(to)) {
+            Granularity granularity = widestBucketAt(day, to);
+            cover.computeIfAbsent(granularity, g -> new ArrayList<>()).add(day);
+            day = granularity.nextBucketStart(day);
+        }
+
+        List<GradeRollup> rollups = new ArrayList<>();
+        cover.forEach((granularity, bucketStarts) -> rollups.addAll(courseId == null
+                ? gradeRollupRepository.findByGranularityAndBucketStartIn(granularity, bucketStarts)
+                : gradeRollupRepository.findByGranularityAndBucketStartInAndCourseId(granularity, bucketStarts, courseId)));
+        return rollups;
+    }
+
+    /**
+     * Whole buckets of one granularity that overlap {@code from..to}, ordered by bucket start.
+     */
+    public List<GradeRollup> findOverlapping(Granularity granularity, LocalDate from, LocalDate to, String courseId) {
+        LocalDate firstBucket = granularity.bucketStart(from);
+        return courseId == null
+                ? gradeRollupRepository.findByGranularityAndBucketStartBetweenOrderByBucketStart(granularity, firstBucket, to)
+                : gradeRollupRepository.findByGranularityAndBucketStartBetweenAndCourseIdOrderByBucketStart(
+                        granularity, firstBucket, to, courseId);
+    }
+
+    // The widest bucket that starts on the day, ends within the range and does not straddle a
+    // bucket of a wider granularity (so the walk can still land on term starts); a day always fits
+    private static Granularity widestBucketAt(LocalDate day, LocalDate to) {
+        for (int i = 0; i < COVER_ORDER.length; i++) {
+            Granularity granularity = COVER_ORDER[i];
+            LocalDate last = granularity.nextBucketStart(day).minusDays(1);
+            if (!granularity.bucketStart(day).equals(day) || last.isAfter(to)) {
+                continue;
+            }
+            boolean nested = true;
+            for (int j = 0; j < i; j++) {
+                nested &= COVER_ORDER[j].bucketStart(day).equals(COVER_ORDER[j].bucketStart(last));
+            }
+            if (nested) {
+                return granularity;
+            }
+        }
+        return Granularity.DAY;
+    }
+
+    private static void addDeltas(Map<String, GradeRollup> deltas, GradeSnapshot grade, int sign) {
+        if (grade.courseId() == null || grade.gradeDate() == null) {
+            return;
+        }
+        double score = grade.numericScore();
+        int letter = ScoreStatistics.letterIndex(score);
+        for (Granularity granularity : Granularity.values()) {
+            GradeRollup delta = deltas.computeIfAbsent(
+                    GradeRollup.idOf(granularity, granularity.bucketStart(grade.gradeDate()), grade.courseId()),
+                    id -> emptyRollup(granularity, grade.gradeDate(), grade.courseId()));
+            delta.setCount(delta.getCount() + sign);
+            delta.setSum(delta.getSum() + sign * score);
+            delta.setSumOfSquares(delta.getSumOfSquares() + sign * score * score);
+            switch (letter) {
+                case ScoreStatistics.LETTER_A -> delta.setGradeA(delta.getGradeA() + sign);
+                case ScoreStatistics.LETTER_B -> delta.setGradeB(delta.getGradeB() + sign);
+                case ScoreStatistics.LETTER_C -> delta.setGradeC(delta.getGradeC() + sign);
+                case ScoreStatistics.LETTER_D -> delta.setGradeD(delta.getGradeD() + sign);
+                default -> delta.setGradeF(delta.getGradeF() + sign);
+            }
+        }
+    }
+
+    private static void add(GradeRollup rollup, DailyCourseTotals day) {
+        rollup.setCount(rollup.getCount() + day.getCount());
+        rollup.setSum(rollup.getSum() + day.getSum());
+        rollup.setSumOfSquares(rollup.getSumOfSquares() + day.getSumOfSquares());
+        rollup.setGradeA(rollup.getGradeA() + day.getAtLeast90());
+        rollup.setGradeB(rollup.getGradeB() + day.getAtLeast80() - day.getAtLeast90());
+        rollup.setGradeC(rollup.getGradeC() + day.getAtLeast70() - day.getAtLeast80());
+        rollup.setGradeD(rollup.getGradeD() + day.getAtLeast60() - day.getAtLeast70());
+        rollup.setGradeF(rollup.getGradeF() + day.getCount() - day.getAtLeast60());
+    }
+
+    private static GradeRollup emptyRollup(Granularity granularity, LocalDate date, String courseId) {
+        LocalDate bucketStart = granularity.bucketStart(date);
+        return GradeRollup.builder()
+                .id(GradeRollup.idOf(granularity, bucketStart, courseId))
+                .granularity(granularity)
+                .bucketStart(bucketStart)
+                .courseId(courseId)
+                .build();
+    }
+}
@@ -1,23 +1,37 @@
 package com.codealpha.gradetracker.service;
 
+import com.codealpha.gradetracker.dto.CursorPageDTO;
 import com.codealpha.gradetracker.dto.GradeDTO;
+import com.codealpha.gradetracker.event.GradeChangedEvent;
+import com.codealpha.gradetracker.event.GradeSnapshot;
 import com.codealpha.gradetracker.exception.ResourceNotFoundException;
 import com.codealpha.gradetracker.model.Course;
 import com.codealpha.gradetracker.model.Grade;
 import com.codealpha.gradetracker.model.Student;
-import com.codealpha.gradetracker.repository.CourseRepository;
 import com.codealpha.gradetracker.repository.GradeRepository;
 import com.codealpha.gradetracker.repository.StudentRepository;
+import com.codealpha.gradetracker.repository.projection.CourseSummary;
+import com.codealpha.gradetracker.repository.projection.StudentSummary;
+import com.codealpha.gradetracker.util.ChunkedSource;
+import com.codealpha.gradetracker.util.FieldSelection;
+import com.codealpha.gradetracker.util.KeysetField;
+import com.codealpha.gradetracker.util.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,15 +41,73 @@ public class GradeService {
 
     private final GradeRepository gradeRepository;
     private final StudentRepository studentRepository;
-    private final CourseRepository courseRepository;
+    private final CourseCache courseCache;
+    private final EntityLookupService entityLookupService;
+    private final ApplicationEventPublisher eventPublisher;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    public static final int MAX_PAGE_SIZE = 100;
+    // Grades converted together when streaming; one student lookup per chunk
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    // Each is backed by a (studentId, field, _id) index (see IndexInitializer) and is never null
+    private static final Map<String, KeysetField<Grade>> KEYSET_FIELDS = KeysetField.byProperty(List.of(
+            new KeysetField<>("id", Grade::getId, Function.identity()),
+            new KeysetField<>("gradeDate", Grade::getGradeDate, LocalDate::parse),
+            new KeysetField<>("numericScore", Grade::getNumericScore, Double::valueOf)));
+
+    // Selectable DTO properties and the document fields each is built from
+    private static final Map<String, List<String>> FIELD_SOURCES = Map.ofEntries(
+            Map.entry("id", List.of()),
+            Map.entry("studentId", List.of("studentId")),
+            Map.entry("courseId", List.of("courseId")),
+            Map.entry("numericScore", List.of("numericScore")),
+            Map.entry("gradeDate", List.of("gradeDate")),
+            Map.entry("description", List.of("description")),
+            Map.entry("assessment", List.of("assessment")),
+            Map.entry("weight", List.of("weight")),
+            Map.entry("createdAt", List.of("createdAt")),
+            Map.entry("updatedAt", List.of("updatedAt")),
+            Map.entry("studentName", List.of("studentId")),
+            Map.entry("courseName", List.of("courseId")),
+            Map.entry("courseCode", List.of("courseId")),
+            Map.entry("letterGrade", List.of("numericScore")),
+            Map.entry("gradeStatus", List.of("numericScore")));
+
+    /**
+     * Every grade with only the properties named in {@code fields} (all when null); unselected
+     * document fields are not loaded and names are only resolved when asked for.
+     */
     @Transactional(readOnly = true)
-    public List<GradeDTO> getAllGrades() {
-        return gradeRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<GradeDTO> getAllGrades(String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, FIELD_SOURCES);
+        List<Grade> grades = selection.isAll()
+                ? gradeRepository.findAll()
+                : gradeRepository.findIncluding(null, null, selection.getDocumentFields());
+        return convertToDTOs(grades, selection);
+    }
+
+    /**
+     * Every grade, read from a cursor and converted a chunk at a time.
+     */
+    public ChunkedSource<GradeDTO> streamAllGrades() {
+        return ChunkedSource.of(gradeRepository::streamAllBy, STREAM_CHUNK_SIZE, this::convertToDTOs);
+    }
+
+    /**
+     * The grades with the given ids, in request order; unknown ids are left out. Loaded with one
+     * query, with student and course names resolved for the whole batch.
+     */
+    @Transactional(readOnly = true)
+    public List<GradeDTO> getGradesByIds(List<String> ids) {
+        List<String> distinctIds = ids.stream().distinct().toList();
+        Map<String, Grade> grades = gradeRepository.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(Grade::getId, Function.identity()));
+        return convertToDTOs(distinctIds.stream()
+                .map(grades::get)
+                .filter(Objects::nonNull)
+                .toList());
     }
 
     @Transactional(readOnly = true)
@@ -46,13 +118,15 @@ public class GradeService {
     }
 
     @Transactional(readOnly = true)
-    public List<GradeDTO> getGradesByStudentId(String studentId) {
+    public List<GradeDTO> getGradesByStudentId(String studentId, String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, FIELD_SOURCES);
         if (!studentRepository.existsById(studentId)) {
             throw new ResourceNotFoundException("Student not found with id: " + studentId);
         }
-        return gradeRepository.findByStudentId(studentId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<Grade> grades = selection.isAll()
+                ? gradeRepository.findByStudentId(studentId)
+                : gradeRepository.findIncluding("studentId", studentId, selection.getDocumentFields());
+        return convertToDTOs(grades, selection);
     }
 
     @Transactional(readOnly = true)
@@ -60,31 +134,84 @@ public class GradeService {
         if (!studentRepository.existsById(studentId)) {
             throw new ResourceNotFoundException("Student not found with id: " + studentId);
         }
-        return gradeRepository.findByStudentId(studentId, pageable)
-                .map(this::convertToDTO);
+        Page<Grade> grades = gradeRepository.findByStudentId(studentId, pageable);
+        return new PageImpl<>(convertToDTOs(grades.getContent()), grades.getPageable(), grades.getTotalElements());
     }
 
+    /**
+     * One keyset page of a student's grades. A cursor from a previous page carries its own sort,
+     * so {@code sortBy} and {@code sortDir} only apply to the first page.
+     */
     @Transactional(readOnly = true)
-    public List<GradeDTO> getGradesByCourseId(String courseId) {
-        if (!courseRepository.existsById(courseId)) {
+    public CursorPageDTO<GradeDTO> getGradesByStudentIdAfter(String studentId, String cursor, int size,
+                                                             String sortBy, String sortDir, boolean includeTotal) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        PageCursor position = cursor != null ? PageCursor.decode(cursor) : null;
+        KeysetField<Grade> field = KeysetField.resolve(KEYSET_FIELDS, position != null ? position.sortBy() : sortBy);
+        Sort.Direction direction = position != null ? position.direction() : Sort.Direction.fromString(sortDir);
+
+        // Only the first page checks the student; later pages of a removed student are just empty
+        if (position == null && !studentRepository.existsById(studentId)) {
+            throw new ResourceNotFoundException("Student not found with id: " + studentId);
+        }
+
+        // One extra row tells whether another page follows without counting
+        List<Grade> grades = gradeRepository.findKeysetPageByStudentId(studentId, field.property(), direction,
+                position != null ? field.parse(position.lastValue()) : null,
+                position != null ? position.lastId() : null,
+                size + 1);
+        boolean hasNext = grades.size() > size;
+        if (hasNext) {
+            grades = grades.subList(0, size);
+        }
+        Grade last = hasNext ? grades.get(size - 1) : null;
+
+        return CursorPageDTO.<GradeDTO>builder()
+                .content(convertToDTOs(grades))
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(last != null
+                        ? new PageCursor(field.property(), direction, field.format(last), last.getId()).encode()
+                        : null)
+                .totalElements(includeTotal ? gradeRepository.countByStudentId(studentId) : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public List<GradeDTO> getGradesByCourseId(String courseId, String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, FIELD_SOURCES);
+        if (!courseCache.existsById(courseId)) {
             throw new ResourceNotFoundException("Course not found with id: " + courseId);
         }
-        return gradeRepository.findByCourseId(courseId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<Grade> grades = selection.isAll()
+                ? gradeRepository.findByCourseId(courseId)
+                : gradeRepository.findIncluding("courseId", courseId, selection.getDocumentFields());
+        return convertToDTOs(grades, selection);
+    }
+
+    /**
+     * The grades of a course, read from a cursor and converted a chunk at a time. The course is
+     * checked now; the grades are read when the source is consumed.
+     */
+    public ChunkedSource<GradeDTO> streamGradesByCourseId(String courseId) {
+        if (!courseCache.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found with id: " + courseId);
+        }
+        return ChunkedSource.of(() -> gradeRepository.streamByCourseId(courseId), STREAM_CHUNK_SIZE, this::convertToDTOs);
     }
 
     @Transactional
     public GradeDTO createGrade(GradeDTO gradeDTO) {
         Student student = studentRepository.findById(gradeDTO.getStudentId())
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + gradeDTO.getStudentId()));
+        entityLookupService.remember(student);
 
-        Course course = courseRepository.findById(gradeDTO.getCourseId())
+        Course course = courseCache.findById(gradeDTO.getCourseId())
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + gradeDTO.getCourseId()));
 
         Grade grade = Grade.builder()
-                .student(student)
-                .course(course)
                 .studentId(student.getId())
                 .courseId(course.getId())
                 .numericScore(gradeDTO.getNumericScore())
@@ -95,6 +222,7 @@ public class GradeService {
                 .build();
 
         Grade saved = gradeRepository.save(grade);
+        eventPublisher.publishEvent(GradeChangedEvent.created(GradeSnapshot.of(saved)));
         log.info("Created new grade for student: {} in course: {}", student.getEmail(), course.getCode());
         return convertToDTO(saved);
     }
@@ -103,19 +231,19 @@ public class GradeService {
     public GradeDTO updateGrade(String id, GradeDTO gradeDTO) {
         Grade grade = gradeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Grade not found with id: " + id));
+        GradeSnapshot before = GradeSnapshot.of(grade);
 
         // Update student and course if changed
         if (!grade.getStudentId().equals(gradeDTO.getStudentId())) {
             Student student = studentRepository.findById(gradeDTO.getStudentId())
                     .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + gradeDTO.getStudentId()));
-            grade.setStudent(student);
+            entityLookupService.remember(student);
             grade.setStudentId(student.getId());
         }
 
         if (!grade.getCourseId().equals(gradeDTO.getCourseId())) {
-            Course course = courseRepository.findById(gradeDTO.getCourseId())
+            Course course = courseCache.findById(gradeDTO.getCourseId())
                     .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + gradeDTO.getCourseId()));
-            grade.setCourse(course);
             grade.setCourseId(course.getId());
         }
 
@@ -126,6 +254,7 @@ public class GradeService {
         grade.setWeight(gradeDTO.getWeight() != null ? gradeDTO.getWeight() : 1.0);
 
         Grade updated = gradeRepository.save(grade);
+        eventPublisher.publishEvent(GradeChangedEvent.updated(before, GradeSnapshot.of(updated)));
         log.info("Updated grade: {}", updated.getId());
         return convertToDTO(updated);
     }
@@ -135,26 +264,39 @@ public class GradeService {
         Grade grade = gradeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Grade not found with id: " + id));
         gradeRepository.delete(grade);
+        eventPublisher.publishEvent(GradeChangedEvent.deleted(GradeSnapshot.of(grade)));
         log.info("Deleted grade: {}", grade.getId());
     }
 
     private GradeDTO convertToDTO(Grade grade) {
-        Student student = grade.getStudent();
-        Course course = grade.getCourse();
-        
-        if (student == null && grade.getStudentId() != null) {
-            student = studentRepository.findById(grade.getStudentId()).orElse(null);
-        }
-        if (course == null && grade.getCourseId() != null) {
-            course = courseRepository.findById(grade.getCourseId()).orElse(null);
-        }
+        return convertToDTOs(List.of(grade)).get(0);
+    }
+
+    private List<GradeDTO> convertToDTOs(List<Grade> grades) {
+        return convertToDTOs(grades, FieldSelection.all());
+    }
+
+    // Students and courses of the whole batch are resolved together, and only when their names are selected
+    private List<GradeDTO> convertToDTOs(List<Grade> grades, FieldSelection selection) {
+        Map<String, StudentSummary> students = selection.includes("studentName")
+                ? entityLookupService.findStudents(grades.stream().map(Grade::getStudentId).collect(Collectors.toList()))
+                : Map.of();
+        Map<String, CourseSummary> courses = selection.includesAny("courseName", "courseCode")
+                ? entityLookupService.findCourses(grades.stream().map(Grade::getCourseId).collect(Collectors.toList()))
+                : Map.of();
+
+        return grades.stream()
+                .map(grade -> convertToDTO(grade, students.get(grade.getStudentId()), courses.get(grade.getCourseId())))
+                .collect(Collectors.toList());
+    }
 
+    private GradeDTO convertToDTO(Grade grade, StudentSummary student, CourseSummary course) {
         return GradeDTO.builder()
                 .id(grade.getId())
                 .studentId(grade.getStudentId())
                 .courseId(grade.getCourseId())
                 .numericScore(grade.getNumericScore())
-                .gradeDate(grade.getGradeDate().format(DATE_FORMATTER))
+                .gradeDate(grade.getGradeDate() != null ? grade.getGradeDate().format(DATE_FORMATTER) : null)
                 .description(grade.getDescription())
                 .assessment(grade.getAssessment())
                 .weight(grade.getWeight())
@@ -163,8 +305,8 @@ public class GradeService {
                 .studentName(student != null ? student.getFullName() : "Unknown")
                 .courseName(course != null ? course.getName() : "Unknown")
                 .courseCode(course != null ? course.getCode() : "Unknown")
-                .letterGrade(grade.getLetterGrade())
-                .gradeStatus(grade.getGradeStatus())
+                .letterGrade(grade.getNumericScore() != null ? grade.getLetterGrade() : null)
+                .gradeStatus(grade.getNumericScore() != null ? grade.getGradeStatus() : null)
                 .build();
     }
 }
@@ -0,0 +1,135 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.event.GradeChangedEvent;
+import com.codealpha.gradetracker.repository.GradeRepository;
+import com.codealpha.gradetracker.repository.projection.GradeTotals;
+import com.codealpha.gradetracker.statistics.ScoreStatistics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running aggregate over every grade score, maintained from {@link GradeChangedEvent}s so that
+ * overall statistics can be served without reading the grades collection.
+ * <p>
+ * Scores are kept as a multiset (score -> occurrences) so min, max and median stay exact when
+ * grades are updated or deleted. Statistics are computed from the multiset by the
+ * {@link ScoreStatistics} kernel on the first read after a write and cached until the next one.
+ * The aggregate is rebuilt from a full scan on startup (see {@link VersionedRebuild}) and whenever
+ * the {@link GradeDriftCheck} finds that its count or score sum no longer matches the collection.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GradeStatisticsAggregate {
+
+    private final GradeRepository gradeRepository;
+
+    private final TreeMap<Double, Long> scoreCounts = new TreeMap<>();
+    private long count;
+    private long version;
+    private boolean initialized;
+    private ScoreStatistics snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @EventListener
+    public synchronized void onGradeChanged(GradeChangedEvent event) {
+        version++;
+        if (!initialized) {
+            // The startup rebuild picks the write up from the collection, rescanning if it is running
+            return;
+        }
+        if (event.before() != null) {
+            remove(event.before().numericScore());
+        }
+        if (event.after() != null) {
+            add(event.after().numericScore(), 1L);
+        }
+        snapshot = null;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Rebuilds when the tracked count or score sum differs from {@code persisted}, unless a grade
+     * changed since {@code sinceVersion}, when the two cannot be compared.
+     */
+    public void checkForDrift(GradeTotals persisted, long sinceVersion) {
+        long trackedCount;
+        double trackedSum = 0;
+        synchronized (this) {
+            if (!initialized || version != sinceVersion) {
+                return;
+            }
+            trackedCount = count;
+            for (Map.Entry<Double, Long> entry : scoreCounts.entrySet()) {
+                trackedSum += entry.getKey() * entry.getValue();
+            }
+        }
+        if (!GradeDriftCheck.matches(trackedCount, trackedSum, persisted.getCount(), persisted.getSum())) {
+            log.warn("Grade statistics aggregate drifted (tracked: {} grades, sum {}; persisted: {} grades, sum {}), rebuilding",
+                    trackedCount, trackedSum, persisted.getCount(), persisted.getSum());
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int[] distinctScores = {0};
+        // Grouped by score in MongoDB, so the transfer is bounded by the number of distinct scores
+        VersionedRebuild.run("grade statistics aggregate", this, () -> version, gradeRepository::countByScore, scores -> {
+            scoreCounts.clear();
+            count = 0;
+            scores.forEach(this::add);
+            initialized = true;
+            snapshot = null;
+            distinctScores[0] = scores.size();
+        });
+
+        log.info("Rebuilt grade statistics aggregate from {} distinct scores in {} ms",
+                distinctScores[0], System.currentTimeMillis() - start);
+    }
+
+    public synchronized ScoreStatistics snapshot() {
+        if (!initialized) {
+            // Requests that arrive before the startup rebuild has run
+            rebuild();
+        }
+        if (snapshot == null) {
+            ScoreStatistics.Accumulator accumulator = ScoreStatistics.accumulator();
+            scoreCounts.forEach(accumulator::add);
+            snapshot = accumulator.build();
+        }
+        return snapshot;
+    }
+
+    private void add(double score, long occurrences) {
+        scoreCounts.merge(score, occurrences, Long::sum);
+        count += occurrences;
+    }
+
+    private void remove(double score) {
+        Long occurrences = scoreCounts.get(score);
+        if (occurrences == null) {
+            log.warn("Removing untracked score {} from grade statistics aggregate", score);
+            return;
+        }
+        if (occurrences == 1) {
+            scoreCounts.remove(score);
+        } else {
+            scoreCounts.put(score, occurrences - 1);
+        }
+        count--;
+    }
+}
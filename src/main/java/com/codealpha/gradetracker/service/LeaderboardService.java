@@ -0,0 +1,256 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.dto.LeaderboardDTO;
+import com.codealpha.gradetracker.dto.StatisticsDTO;
+import com.codealpha.gradetracker.event.GradeChangedEvent;
+import com.codealpha.gradetracker.event.GradeSnapshot;
+import com.codealpha.gradetracker.repository.GradeRepository;
+import com.codealpha.gradetracker.repository.projection.CourseSummary;
+import com.codealpha.gradetracker.repository.projection.GradeTotals;
+import com.codealpha.gradetracker.repository.projection.RankingTotals;
+import com.codealpha.gradetracker.repository.projection.StudentSummary;
+import com.codealpha.gradetracker.statistics.RankedLeaderboard;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Live rankings of students and courses by average score. Averages and their
+ * {@link RankedLeaderboard}s are maintained from {@link GradeChangedEvent}s, so a page of the
+ * leaderboard never reads grades; only the display names of the returned rows are looked up.
+ * Rebuilt on startup (see {@link VersionedRebuild}) and whenever the {@link GradeDriftCheck} finds
+ * either leaderboard out of step.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final GradeRepository gradeRepository;
+    private final EntityLookupService entityLookupService;
+    private final CourseRankIndex courseRankIndex;
+
+    private final Map<String, Totals> studentTotals = new HashMap<>();
+    private final Map<String, Totals> courseTotals = new HashMap<>();
+    private final RankedLeaderboard students = new RankedLeaderboard();
+    private final RankedLeaderboard courses = new RankedLeaderboard();
+    private long version;
+    private boolean initialized;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @EventListener
+    public synchronized void onGradeChanged(GradeChangedEvent event) {
+        version++;
+        if (!initialized) {
+            return;
+        }
+        if (event.before() != null) {
+            apply(event.before(), -1);
+        }
+        if (event.after() != null) {
+            apply(event.after(), 1);
+        }
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        // One row per student and per course, so the transfer does not grow with the number of grades
+        VersionedRebuild.run("leaderboard", this, () -> version, gradeRepository::sumByStudentAndByCourse, totals -> {
+            studentTotals.clear();
+            courseTotals.clear();
+            students.clear();
+            courses.clear();
+            for (RankingTotals row : totals) {
+                if (row.isStudent()) {
+                    update(studentTotals, students, row.getId(), row.getTotalScore(), row.getGradeCount());
+                } else {
+                    update(courseTotals, courses, row.getId(), row.getTotalScore(), row.getGradeCount());
+                }
+            }
+            initialized = true;
+        });
+
+        int studentCount;
+        int courseCount;
+        synchronized (this) {
+            studentCount = students.size();
+            courseCount = courses.size();
+        }
+        log.info("Rebuilt leaderboards ({} students, {} courses) in {} ms",
+                studentCount, courseCount, System.currentTimeMillis() - start);
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Rebuilds when the grade count or score sum tracked for students or for courses differs from
+     * {@code persisted}, unless a grade changed since {@code sinceVersion}.
+     */
+    public void checkForDrift(GradeTotals persisted, long sinceVersion) {
+        boolean studentsMatch;
+        boolean coursesMatch;
+        synchronized (this) {
+            if (!initialized || version != sinceVersion) {
+                return;
+            }
+            studentsMatch = matches(studentTotals, persisted.getStudentCount(), persisted.getStudentSum());
+            coursesMatch = matches(courseTotals, persisted.getCourseCount(), persisted.getCourseSum());
+        }
+        if (!studentsMatch || !coursesMatch) {
+            log.warn("Leaderboards drifted (students match: {}, courses match: {}), rebuilding", studentsMatch, coursesMatch);
+            rebuild();
+        }
+    }
+
+    public LeaderboardDTO<StatisticsDTO.TopStudent> getStudentLeaderboard(int offset, int limit) {
+        validatePage(offset, limit);
+        int total;
+        synchronized (this) {
+            ensureInitialized();
+            total = students.size();
+        }
+
+        return LeaderboardDTO.<StatisticsDTO.TopStudent>builder()
+                .offset(offset)
+                .limit(limit)
+                .total(total)
+                .entries(getTopStudents(offset, limit))
+                .build();
+    }
+
+    public LeaderboardDTO<StatisticsDTO.CoursePerformance> getCourseLeaderboard(int offset, int limit) {
+        validatePage(offset, limit);
+        int total;
+        synchronized (this) {
+            ensureInitialized();
+            total = courses.size();
+        }
+
+        return LeaderboardDTO.<StatisticsDTO.CoursePerformance>builder()
+                .offset(offset)
+                .limit(limit)
+                .total(total)
+                .entries(getCoursePerformances(offset, limit))
+                .build();
+    }
+
+    public List<StatisticsDTO.TopStudent> getTopStudents(int offset, int limit) {
+        List<RankedLeaderboard.Entry> page;
+        Map<String, Long> gradeCounts = new HashMap<>();
+        synchronized (this) {
+            ensureInitialized();
+            page = students.page(offset, limit);
+            page.forEach(entry -> gradeCounts.put(entry.id(), studentTotals.get(entry.id()).count));
+        }
+
+        Map<String, StudentSummary> summaries = entityLookupService.findStudents(
+                page.stream().map(RankedLeaderboard.Entry::id).toList());
+
+        return page.stream()
+                .map(entry -> {
+                    StudentSummary student = summaries.get(entry.id());
+                    return StatisticsDTO.TopStudent.builder()
+                            .studentId(entry.id())
+                            .studentName(student != null ? student.getFullName() : "Unknown")
+                            .averageGrade(entry.score())
+                            .totalGrades(gradeCounts.get(entry.id()).intValue())
+                            .build();
+                })
+                .toList();
+    }
+
+    public List<StatisticsDTO.CoursePerformance> getCoursePerformances(int offset, int limit) {
+        List<RankedLeaderboard.Entry> page;
+        synchronized (this) {
+            ensureInitialized();
+            page = courses.page(offset, limit);
+        }
+
+        Map<String, CourseSummary> summaries = entityLookupService.findCourses(
+                page.stream().map(RankedLeaderboard.Entry::id).toList());
+
+        return page.stream()
+                .map(entry -> {
+                    CourseSummary course = summaries.get(entry.id());
+                    return StatisticsDTO.CoursePerformance.builder()
+                            .courseId(entry.id())
+                            .courseName(course != null ? course.getName() : "Unknown")
+                            .courseCode(course != null ? course.getCode() : "Unknown")
+                            .averageGrade(entry.score())
+                            .totalStudents((int) courseRankIndex.getStudentCount(entry.id()))
+                            .build();
+                })
+                .toList();
+    }
+
+    public synchronized int getCourseCount() {
+        ensureInitialized();
+        return courses.size();
+    }
+
+    private void validatePage(int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private void ensureInitialized() {
+        if (!initialized) {
+            rebuild();
+        }
+    }
+
+    private void apply(GradeSnapshot grade, int sign) {
+        if (grade.studentId() != null) {
+            update(studentTotals, students, grade.studentId(), sign * grade.numericScore(), sign);
+        }
+        if (grade.courseId() != null) {
+            update(courseTotals, courses, grade.courseId(), sign * grade.numericScore(), sign);
+        }
+    }
+
+    private static boolean matches(Map<String, Totals> totalsById, long persistedCount, double persistedSum) {
+        long count = 0;
+        double sum = 0;
+        for (Totals totals : totalsById.values()) {
+            count += totals.count;
+            sum += totals.sum;
+        }
+        return GradeDriftCheck.matches(count, sum, persistedCount, persistedSum);
+    }
+
+    private static void update(Map<String, Totals> totalsById, RankedLeaderboard leaderboard,
+                               String id, double scoreDelta, long countDelta) {
+        Totals totals = totalsById.computeIfAbsent(id, key -> new Totals());
+        totals.sum += scoreDelta;
+        totals.count += countDelta;
+        if (totals.count > 0) {
+            leaderboard.put(id, totals.sum / totals.count);
+        } else {
+            totalsById.remove(id);
+            leaderboard.remove(id);
+        }
+    }
+
+    private static class Totals {
+        private double sum;
+        private long count;
+    }
+}
@@ -0,0 +1,230 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.model.Grade;
+import com.codealpha.gradetracker.repository.projection.StudentSummary;
+import com.codealpha.gradetracker.statistics.ScoreStatistics;
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Renders per-student grade report PDFs. Bulk runs render on a pool with one thread per core
+ * (or {@code app.export.report-cards.threads}) and are written to a ZIP in the order they finish.
+ */
+@Component
+@Slf4j
+public class ReportCardRenderer {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final float[] COLUMN_WIDTHS = {3, 3, 2, 2, 2, 2};
+    // Parsed once and shared; a PdfFont belongs to one document, so each report wraps these in its own
+    private static final FontProgram REGULAR = fontProgram(StandardFonts.HELVETICA);
+    private static final FontProgram BOLD = fontProgram(StandardFonts.HELVETICA_BOLD);
+
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public ReportCardRenderer(@Value("${app.export.report-cards.threads:0}") int threads) {
+        this.parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, task -> {
+            Thread thread = new Thread(task, "report-card-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a bulk run writing into {@code zip}. Rows must arrive grouped by student.
+     */
+    ZipWriter zipWriter(ZipOutputStream zip) {
+        return new ZipWriter(zip);
+    }
+
+    static String fileName(StudentSummary student) {
+        return "student_" + student.getId() + "_report.pdf";
+    }
+
+    static byte[] render(StudentSummary student, List<ExportRow> rows) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        try (PdfWriter writer = new PdfWriter(baos);
+             PdfDocument pdf = new PdfDocument(writer);
+             Document document = new Document(pdf)) {
+
+            PdfFont bold = PdfFontFactory.createFont(BOLD, PdfEncodings.WINANSI);
+            document.setFont(PdfFontFactory.createFont(REGULAR, PdfEncodings.WINANSI));
+
+            // Title
+            Paragraph title = new Paragraph("Student Grade Report")
+                    .setFontSize(20)
+                    .setFont(bold)
+                    .setTextAlignment(TextAlignment.CENTER);
+            document.add(title);
+
+            // Student Info
+            document.add(new Paragraph("\n"));
+            document.add(new Paragraph("Student: " + student.getFullName()).setFont(bold));
+            document.add(new Paragraph("Email: " + student.getEmail()));
+            document.add(new Paragraph("Enrollment ID: " + student.getEnrollmentId()));
+            document.add(new Paragraph("Report Generated: " + LocalDateTime.now().format(FORMATTER)));
+            document.add(new Paragraph("\n"));
+
+            // Table
+            Table table = new Table(UnitValue.createPercentArray(COLUMN_WIDTHS));
+            table.setWidth(UnitValue.createPercentValue(100));
+
+            // Headers
+            table.addHeaderCell("Course Code");
+            table.addHeaderCell("Course Name");
+            table.addHeaderCell("Score");
+            table.addHeaderCell("Grade");
+            table.addHeaderCell("Assessment");
+            table.addHeaderCell("Date");
+
+            // Data
+            ScoreStatistics.Accumulator scores = ScoreStatistics.accumulator();
+            for (ExportRow row : rows) {
+                Grade grade = row.grade();
+                scores.add(grade.getNumericScore());
+                table.addCell(row.course().getCode());
+                table.addCell(row.course().getName());
+                table.addCell(grade.getNumericScore().toString());
+                table.addCell(grade.getLetterGrade());
+                table.addCell(grade.getAssessment() != null ? grade.getAssessment() : "N/A");
+                table.addCell(grade.getGradeDate() != null ? grade.getGradeDate().toString() : "");
+            }
+
+            document.add(table);
+
+            // Statistics
+            document.add(new Paragraph("\n"));
+            ScoreStatistics statistics = scores.build();
+
+            document.add(new Paragraph("Statistics:").setFont(bold));
+            document.add(new Paragraph("Total Grades: " + statistics.getCount()));
+            document.add(new Paragraph(String.format("Average Score: %.2f", statistics.getMean())));
+            document.add(new Paragraph(String.format("Highest Score: %.2f", statistics.getMax())));
+            document.add(new Paragraph(String.format("Lowest Score: %.2f", statistics.getMin())));
+        }
+
+        return baos.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static FontProgram fontProgram(String name) {
+        try {
+            return FontProgramFactory.createFont(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load font " + name, e);
+        }
+    }
+
+    private record ReportCard(String fileName, byte[] pdf) {
+    }
+
+    /**
+     * Collects each student's rows, renders them on the pool and writes finished reports to the
+     * ZIP. At most two reports per thread are pending at once, so memory stays bounded however
+     * many students there are.
+     */
+    final class ZipWriter {
+
+        private final ZipOutputStream zip;
+        private final CompletionService<ReportCard> rendering = new ExecutorCompletionService<>(executor);
+        private final int maxPending = parallelism * 2;
+        private List<ExportRow> student = new ArrayList<>();
+        private int pending;
+        private int written;
+
+        private ZipWriter(ZipOutputStream zip) {
+            this.zip = zip;
+        }
+
+        void add(ExportRow row) throws IOException {
+            if (!student.isEmpty()
+                    && !Objects.equals(student.get(0).grade().getStudentId(), row.grade().getStudentId())) {
+                submit();
+            }
+            student.add(row);
+        }
+
+        /**
+         * Renders the last student, waits for everything pending and returns the number of reports.
+         */
+        int finish() throws IOException {
+            if (!student.isEmpty()) {
+                submit();
+            }
+            while (pending > 0) {
+                writeNext();
+            }
+            return written;
+        }
+
+        private void submit() throws IOException {
+            if (pending == maxPending) {
+                writeNext();
+            }
+            List<ExportRow> rows = student;
+            StudentSummary summary = rows.get(0).student();
+            rendering.submit(() -> new ReportCard(fileName(summary), render(summary, rows)));
+            pending++;
+            student = new ArrayList<>();
+        }
+
+        private void writeNext() throws IOException {
+            ReportCard card;
+            try {
+                card = rendering.take().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while rendering report cards");
+            } catch (ExecutionException e) {
+                throw new IOException("Could not render report card", e.getCause());
+            }
+            pending--;
+
+            zip.putNextEntry(new ZipEntry(card.fileName()));
+            zip.write(card.pdf());
+            zip.closeEntry();
+            written++;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.event.GradeChangedEvent;
+import com.codealpha.gradetracker.util.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Named {@link SingleFlight} groups for expensive read operations, so that identical requests
+ * arriving together (e.g. every dashboard refreshing at the end of a class period) share one
+ * computation. Completed results are reused for a short freshness window and dropped whenever
+ * a grade changes.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final Duration freshness;
+    private final ConcurrentMap<String, SingleFlight<String, Object>> flights = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(@Value("${app.coalescing.freshness-ms:2000}") long freshnessMs) {
+        this.freshness = Duration.ofMillis(freshnessMs);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V, E extends Exception> V execute(String operation, String key, SingleFlight.Loader<V, E> loader) throws E {
+        SingleFlight<String, Object> flight = flights.computeIfAbsent(operation, name -> new SingleFlight<>(freshness));
+        return (V) flight.execute(key, loader::load);
+    }
+
+    @EventListener
+    public void onGradeChanged(GradeChangedEvent event) {
+        flights.values().forEach(SingleFlight::invalidateAll);
+    }
+
+    public Map<String, SingleFlight.Stats> getStats() {
+        Map<String, SingleFlight.Stats> stats = new TreeMap<>();
+        flights.forEach((operation, flight) -> stats.put(operation, flight.getStats()));
+        return stats;
+    }
+}
@@ -0,0 +1,93 @@
+package com.codealpha.gradetracker.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Entities already resolved during the current HTTP request, keyed by type and id, so that each
+ * distinct id is looked up at most once per request however many rows or service calls refer
+ * to it. Ids that resolved to nothing are remembered too.
+ * <p>
+ * Outside a request thread (startup, scheduled tasks, streamed response bodies) nothing is
+ * memoized and every call goes to the loader.
+ */
+@Component
+public class RequestIdentityMap {
+
+    private static final String ATTRIBUTE = RequestIdentityMap.class.getName();
+    private static final Object ABSENT = new Object();
+
+    /**
+     * Values for {@code ids}, loading the ids not yet seen in this request with one call to
+     * {@code loader}. Ids without a value are absent from the result.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> Map<String, V> getAll(Class<V> type, Collection<String> ids, Function<Set<String>, Map<String, V>> loader) {
+        Map<String, Object> known = entries(type);
+        if (known == null) {
+            return loader.apply(ids instanceof Set<String> set ? set : new LinkedHashSet<>(ids));
+        }
+
+        Map<String, V> found = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String id : ids) {
+            Object value = known.get(id);
+            if (value == null) {
+                missing.add(id);
+            } else if (value != ABSENT) {
+                found.put(id, (V) value);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<String, V> loaded = loader.apply(missing);
+            for (String id : missing) {
+                V value = loaded.get(id);
+                known.put(id, value != null ? value : ABSENT);
+                if (value != null) {
+                    found.put(id, value);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Records an entity the caller has already loaded, so later lookups in the request reuse it.
+     */
+    public <V> void put(Class<V> type, String id, V value) {
+        Map<String, Object> known = entries(type);
+        if (known != null && id != null && value != null) {
+            known.put(id, value);
+        }
+    }
+
+    public void remove(Class<?> type, String id) {
+        Map<String, Object> known = entries(type);
+        if (known != null) {
+            known.remove(id);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> entries(Class<?> type) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<Class<?>, Map<String, Object>> byType =
+                (Map<Class<?>, Map<String, Object>>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (byType == null) {
+            byType = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, byType, RequestAttributes.SCOPE_REQUEST);
+        }
+        return byType.computeIfAbsent(type, key -> new HashMap<>());
+    }
+}
@@ -0,0 +1,148 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.event.CourseChangedEvent;
+import com.codealpha.gradetracker.event.StudentChangedEvent;
+import com.codealpha.gradetracker.repository.CourseRepository;
+import com.codealpha.gradetracker.repository.StudentRepository;
+import com.codealpha.gradetracker.repository.projection.CourseSummary;
+import com.codealpha.gradetracker.repository.projection.StudentSummary;
+import com.codealpha.gradetracker.search.TrigramIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram search indexes over student names, emails and enrollment ids and over course names
+ * and codes. Kept current from {@link StudentChangedEvent}s and {@link CourseChangedEvent}s and
+ * rebuilt from summary projections on startup (see {@link VersionedRebuild}). Searches run
+ * concurrently under a read lock.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexService {
+
+    public static final int MAX_RESULTS = 1000;
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+
+    // Field weights: identifiers rank above names, names above emails
+    private final TrigramIndex students = new TrigramIndex(2, 1, 3); // full name, email, enrollment id
+    private final TrigramIndex courses = new TrigramIndex(2, 3);     // name, code
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by this; the indexes themselves by lock
+    private long version;
+    private volatile boolean initialized;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @EventListener
+    public synchronized void onStudentChanged(StudentChangedEvent event) {
+        version++;
+        if (!initialized) {
+            // The startup rebuild picks the write up from the collection, rescanning if it is running
+            return;
+        }
+        write(() -> {
+            if (event.student() == null) {
+                students.remove(event.studentId());
+            } else {
+                putStudent(event.student());
+            }
+        });
+    }
+
+    @EventListener
+    public synchronized void onCourseChanged(CourseChangedEvent event) {
+        version++;
+        if (!initialized) {
+            return;
+        }
+        write(() -> {
+            if (event.course() == null) {
+                courses.remove(event.courseId());
+            } else {
+                putCourse(event.course());
+            }
+        });
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        VersionedRebuild.run("search indexes", this, () -> version, this::scan, summaries -> {
+            write(() -> {
+                students.clear();
+                summaries.students().forEach(this::putStudent);
+                courses.clear();
+                summaries.courses().forEach(this::putCourse);
+            });
+            initialized = true;
+            log.info("Rebuilt search indexes for {} students and {} courses in {} ms",
+                    summaries.students().size(), summaries.courses().size(), System.currentTimeMillis() - start);
+        });
+    }
+
+    public TrigramIndex.Result searchStudents(String query, int limit) {
+        return search(students, query, limit);
+    }
+
+    public TrigramIndex.Result searchCourses(String query, int limit) {
+        return search(courses, query, limit);
+    }
+
+    private TrigramIndex.Result search(TrigramIndex index, String query, int limit) {
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_RESULTS);
+        }
+        if (!initialized) {
+            initializeOnce();
+        }
+        lock.readLock().lock();
+        try {
+            return index.search(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Requests that arrive before the startup rebuild has run; only the first one rebuilds
+    private synchronized void initializeOnce() {
+        if (!initialized) {
+            rebuild();
+        }
+    }
+
+    private Summaries scan() {
+        return new Summaries(studentRepository.findAllSummaries(), courseRepository.findAllSummaries());
+    }
+
+    private void putStudent(StudentSummary student) {
+        students.put(student.getId(), student.getFullName(), student.getEmail(), student.getEnrollmentId());
+    }
+
+    private void putCourse(CourseSummary course) {
+        courses.put(course.getId(), course.getName(), course.getCode());
+    }
+
+    private void write(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record Summaries(List<StudentSummary> students, List<CourseSummary> courses) {
+    }
+}
@@ -1,17 +1,24 @@
 package com.codealpha.gradetracker.service;
 
+import com.codealpha.gradetracker.dto.LeaderboardDTO;
+import com.codealpha.gradetracker.dto.PercentileRankDTO;
+import com.codealpha.gradetracker.dto.RangeStatisticsDTO;
+import com.codealpha.gradetracker.dto.ScoreHistogramDTO;
 import com.codealpha.gradetracker.dto.StatisticsDTO;
+import com.codealpha.gradetracker.exception.ResourceNotFoundException;
 import com.codealpha.gradetracker.model.Grade;
-import com.codealpha.gradetracker.repository.CourseRepository;
+import com.codealpha.gradetracker.model.GradeRollup;
 import com.codealpha.gradetracker.repository.GradeRepository;
 import com.codealpha.gradetracker.repository.StudentRepository;
+import com.codealpha.gradetracker.statistics.ScoreFenwickTree;
+import com.codealpha.gradetracker.statistics.ScoreStatistics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,35 +26,41 @@ import java.util.stream.Collectors;
 public class StatisticsService {
 
     private final StudentRepository studentRepository;
-    private final CourseRepository courseRepository;
+    private final CourseCache courseCache;
     private final GradeRepository gradeRepository;
+    private final GradeStatisticsAggregate gradeStatisticsAggregate;
+    private final CourseRankIndex courseRankIndex;
+    private final LeaderboardService leaderboardService;
+    private final RequestCoalescer requestCoalescer;
+    private final GradeRollupService gradeRollupService;
+
+    private static final int TOP_STUDENT_LIMIT = 5;
+    private static final int MAX_HISTOGRAM_BINS = 1000;
 
     @Transactional(readOnly = true)
     public StatisticsDTO getOverallStatistics() {
+        return requestCoalescer.execute("statistics.overall", "all", this::computeOverallStatistics);
+    }
+
+    private StatisticsDTO computeOverallStatistics() {
         long totalStudents = studentRepository.count();
-        long totalCourses = courseRepository.count();
-        long totalGrades = gradeRepository.countAllGrades();
+        long totalCourses = courseCache.count();
         long activeStudents = studentRepository.countActiveStudents();
 
-        // Fetch all grades once and cache them
-        List<Grade> allGrades = gradeRepository.findAll();
-        
-        // Work with scores only to avoid @DBRef lazy loading issues
-        List<Double> allScores = allGrades.stream()
-                .map(Grade::getNumericScore)
-                .sorted()
-                .collect(Collectors.toList());
-        
-        Double overallAverage = allScores.isEmpty() ? null : 
-            allScores.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-        Double median = calculateMedian(allScores);
-        Double highestScore = allScores.isEmpty() ? null : allScores.get(allScores.size() - 1);
-        Double lowestScore = allScores.isEmpty() ? null : allScores.get(0);
-        Double standardDeviation = calculateStandardDeviation(allScores, overallAverage);
-
-        StatisticsDTO.GradeDistribution distribution = calculateGradeDistribution(allGrades);
-        List<StatisticsDTO.TopStudent> topStudents = getTopStudents(allGrades, 5);
-        List<StatisticsDTO.CoursePerformance> coursePerformances = getCoursePerformances(allGrades);
+        // Score statistics come from the incrementally maintained aggregate
+        ScoreStatistics scores = gradeStatisticsAggregate.snapshot();
+        long totalGrades = scores.getCount();
+        Double overallAverage = valueOrNull(scores.getMean());
+        Double median = valueOrNull(scores.getMedian());
+        Double highestScore = valueOrNull(scores.getMax());
+        Double lowestScore = valueOrNull(scores.getMin());
+        Double standardDeviation = valueOrNull(scores.getStandardDeviation());
+        StatisticsDTO.GradeDistribution distribution = toGradeDistribution(scores);
+
+        // Rankings come from the maintained leaderboards
+        List<StatisticsDTO.TopStudent> topStudents = leaderboardService.getTopStudents(0, TOP_STUDENT_LIMIT);
+        List<StatisticsDTO.CoursePerformance> coursePerformances =
+                leaderboardService.getCoursePerformances(0, leaderboardService.getCourseCount());
 
         return StatisticsDTO.builder()
                 .totalStudents(totalStudents)
@@ -65,132 +78,202 @@ public class StatisticsService {
                 .build();
     }
 
-    private Double calculateMedian(List<Double> scores) {
-        if (scores.isEmpty()) return null;
-        
-        int size = scores.size();
-        if (size % 2 == 0) {
-            return (scores.get(size / 2 - 1) + scores.get(size / 2)) / 2.0;
-        } else {
-            return scores.get(size / 2);
+    private StatisticsDTO.GradeDistribution toGradeDistribution(ScoreStatistics scores) {
+        return StatisticsDTO.GradeDistribution.builder()
+                .gradeA((int) scores.getLetterCount(ScoreStatistics.LETTER_A))
+                .gradeB((int) scores.getLetterCount(ScoreStatistics.LETTER_B))
+                .gradeC((int) scores.getLetterCount(ScoreStatistics.LETTER_C))
+                .gradeD((int) scores.getLetterCount(ScoreStatistics.LETTER_D))
+                .gradeF((int) scores.getLetterCount(ScoreStatistics.LETTER_F))
+                .build();
+    }
+
+    private static Double valueOrNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStudentStatistics(String studentId) {
+        return requestCoalescer.execute("statistics.student", studentId, () -> computeStudentStatistics(studentId));
+    }
+
+    private Map<String, Object> computeStudentStatistics(String studentId) {
+        ScoreStatistics.Accumulator accumulator = ScoreStatistics.accumulator();
+        for (Grade grade : gradeRepository.findScoresByStudentId(studentId)) {
+            accumulator.add(grade.getNumericScore());
         }
+        ScoreStatistics scores = accumulator.build();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("average", valueOrNull(scores.getMean()));
+        stats.put("highest", scores.isEmpty() ? 0.0 : scores.getMax());
+        stats.put("lowest", scores.isEmpty() ? 0.0 : scores.getMin());
+        stats.put("totalGrades", (int) scores.getCount());
+        stats.put("passing", scores.getPassing());
+        stats.put("failing", scores.getFailing());
+
+        return stats;
     }
 
-    private Double calculateStandardDeviation(List<Double> scores, Double mean) {
-        if (scores.isEmpty() || mean == null) return null;
+    public LeaderboardDTO<StatisticsDTO.TopStudent> getStudentLeaderboard(int offset, int limit) {
+        return leaderboardService.getStudentLeaderboard(offset, limit);
+    }
+
+    public LeaderboardDTO<StatisticsDTO.CoursePerformance> getCourseLeaderboard(int offset, int limit) {
+        return leaderboardService.getCourseLeaderboard(offset, limit);
+    }
+
+    public PercentileRankDTO getPercentileRank(String courseId, String studentId) {
+        double average = courseRankIndex.getStudentAverage(courseId, studentId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "No grades found for student " + studentId + " in course " + courseId));
+
+        return PercentileRankDTO.builder()
+                .courseId(courseId)
+                .studentId(studentId)
+                .averageGrade(average)
+                .percentileRank(courseRankIndex.getPercentileRank(courseId, average))
+                .totalStudents(courseRankIndex.getStudentCount(courseId))
+                .build();
+    }
 
-        double variance = scores.stream()
-                .mapToDouble(score -> Math.pow(score - mean, 2))
-                .average()
-                .orElse(0.0);
+    public ScoreHistogramDTO getScoreRange(String courseId, double min, double max) {
+        validateScoreRange(min, max);
 
-        return Math.sqrt(variance);
+        return ScoreHistogramDTO.builder()
+                .courseId(courseId)
+                .from(min)
+                .to(max)
+                .students(courseRankIndex.countStudentsBetween(courseId, min, max))
+                .totalStudents(courseRankIndex.getStudentCount(courseId))
+                .build();
     }
 
-    private StatisticsDTO.GradeDistribution calculateGradeDistribution(List<Grade> allGrades) {
-        int gradeA = 0, gradeB = 0, gradeC = 0, gradeD = 0, gradeF = 0;
-        
-        for (Grade grade : allGrades) {
-            double score = grade.getNumericScore();
-            if (score >= 90) gradeA++;
-            else if (score >= 80) gradeB++;
-            else if (score >= 70) gradeC++;
-            else if (score >= 60) gradeD++;
-            else gradeF++;
+    public ScoreHistogramDTO getScoreHistogram(String courseId, double from, double to, double binWidth) {
+        validateScoreRange(from, to);
+        if (binWidth <= 0) {
+            throw new IllegalArgumentException("Bin width must be positive");
+        }
+        int binCount = (int) Math.ceil((to - from) / binWidth);
+        if (binCount > MAX_HISTOGRAM_BINS) {
+            throw new IllegalArgumentException("Histogram cannot have more than " + MAX_HISTOGRAM_BINS + " bins");
+        }
+        binCount = Math.max(binCount, 1);
+
+        // Bins are half-open [from, to) except the last one, which includes the upper bound
+        int[] fromBuckets = new int[binCount];
+        int[] toBuckets = new int[binCount];
+        double[] binStarts = new double[binCount];
+        double[] binEnds = new double[binCount];
+        for (int i = 0; i < binCount; i++) {
+            binStarts[i] = from + i * binWidth;
+            binEnds[i] = i == binCount - 1 ? to : from + (i + 1) * binWidth;
+            fromBuckets[i] = ScoreFenwickTree.bucketOf(binStarts[i]);
+            toBuckets[i] = i == binCount - 1
+                    ? ScoreFenwickTree.bucketOf(binEnds[i])
+                    : ScoreFenwickTree.bucketOf(binEnds[i]) - 1;
         }
 
-        return StatisticsDTO.GradeDistribution.builder()
-                .gradeA(gradeA)
-                .gradeB(gradeB)
-                .gradeC(gradeC)
-                .gradeD(gradeD)
-                .gradeF(gradeF)
+        long[] counts = courseRankIndex.countStudentsInBuckets(courseId, fromBuckets, toBuckets);
+        List<ScoreHistogramDTO.Bin> bins = new ArrayList<>(binCount);
+        long students = 0;
+        for (int i = 0; i < binCount; i++) {
+            students += counts[i];
+            bins.add(ScoreHistogramDTO.Bin.builder()
+                    .from(binStarts[i])
+                    .to(binEnds[i])
+                    .students(counts[i])
+                    .build());
+        }
+
+        return ScoreHistogramDTO.builder()
+                .courseId(courseId)
+                .from(from)
+                .to(to)
+                .students(students)
+                .totalStudents(courseRankIndex.getStudentCount(courseId))
+                .bins(bins)
                 .build();
     }
 
-    private List<StatisticsDTO.TopStudent> getTopStudents(List<Grade> allGrades, int limit) {
-        Map<String, List<Grade>> gradesByStudent = allGrades.stream()
-                .filter(g -> g.getStudentId() != null)
-                .collect(Collectors.groupingBy(Grade::getStudentId));
-
-        return gradesByStudent.entrySet().stream()
-                .map(entry -> {
-                    String studentId = entry.getKey();
-                    List<Grade> grades = entry.getValue();
-                    Double average = grades.stream()
-                            .mapToDouble(Grade::getNumericScore)
-                            .average()
-                            .orElse(0.0);
-                    
-                    var student = studentRepository.findById(studentId).orElse(null);
-                    
-                    return StatisticsDTO.TopStudent.builder()
-                            .studentId(studentId)
-                            .studentName(student != null ? student.getFullName() : "Unknown")
-                            .averageGrade(average)
-                            .totalGrades(grades.size())
-                            .build();
-                })
-                .sorted(Comparator.comparing(StatisticsDTO.TopStudent::getAverageGrade).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
-    }
-
-    private List<StatisticsDTO.CoursePerformance> getCoursePerformances(List<Grade> allGrades) {
-        Map<String, List<Grade>> gradesByCourse = allGrades.stream()
-                .filter(g -> g.getCourseId() != null)
-                .collect(Collectors.groupingBy(Grade::getCourseId));
-
-        return gradesByCourse.entrySet().stream()
-                .map(entry -> {
-                    String courseId = entry.getKey();
-                    List<Grade> grades = entry.getValue();
-                    Double average = grades.stream()
-                            .mapToDouble(Grade::getNumericScore)
-                            .average()
-                            .orElse(0.0);
-                    
-                    long uniqueStudents = grades.stream()
-                            .map(Grade::getStudentId)
-                            .distinct()
-                            .count();
-
-                    var course = courseRepository.findById(courseId).orElse(null);
-
-                    return StatisticsDTO.CoursePerformance.builder()
-                            .courseId(courseId)
-                            .courseName(course != null ? course.getName() : "Unknown")
-                            .courseCode(course != null ? course.getCode() : "Unknown")
-                            .averageGrade(average)
-                            .totalStudents((int) uniqueStudents)
-                            .build();
-                })
-                .sorted(Comparator.comparing(StatisticsDTO.CoursePerformance::getAverageGrade).reversed())
-                .collect(Collectors.toList());
+    /**
+     * Statistics of the grades dated within {@code from..to}, merged from rollup buckets. When a
+     * granularity is given, the trend lists every whole bucket overlapping the range.
+     */
+    public RangeStatisticsDTO getRangeStatistics(LocalDate from, LocalDate to, String courseId,
+                                                 GradeRollup.Granularity granularity) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Date range must satisfy from <= to");
+        }
+
+        GradeRollup totals = mergeRollups(gradeRollupService.findCovering(from, to, courseId));
+        RangeStatisticsDTO.RangeStatisticsDTOBuilder range = RangeStatisticsDTO.builder()
+                .from(from)
+                .to(to)
+                .courseId(courseId)
+                .totalGrades(totals.getCount())
+                .average(averageOf(totals))
+                .standardDeviation(standardDeviationOf(totals))
+                .distribution(StatisticsDTO.GradeDistribution.builder()
+                        .gradeA(totals.getGradeA().intValue())
+                        .gradeB(totals.getGradeB().intValue())
+                        .gradeC(totals.getGradeC().intValue())
+                        .gradeD(totals.getGradeD().intValue())
+                        .gradeF(totals.getGradeF().intValue())
+                        .build());
+
+        if (granularity != null) {
+            // Buckets of different courses share a start date, so merge them per start
+            Map<LocalDate, List<GradeRollup>> buckets = new TreeMap<>();
+            for (GradeRollup rollup : gradeRollupService.findOverlapping(granularity, from, to, courseId)) {
+                buckets.computeIfAbsent(rollup.getBucketStart(), start -> new ArrayList<>()).add(rollup);
+            }
+            List<RangeStatisticsDTO.TrendPoint> trend = new ArrayList<>(buckets.size());
+            buckets.forEach((bucketStart, rollups) -> {
+                GradeRollup bucket = mergeRollups(rollups);
+                trend.add(RangeStatisticsDTO.TrendPoint.builder()
+                        .bucketStart(bucketStart)
+                        .totalGrades(bucket.getCount())
+                        .average(averageOf(bucket))
+                        .build());
+            });
+            range.granularity(granularity.name()).trend(trend);
+        }
+
+        return range.build();
+    }
+
+    private static GradeRollup mergeRollups(List<GradeRollup> rollups) {
+        GradeRollup merged = new GradeRollup();
+        for (GradeRollup rollup : rollups) {
+            merged.setCount(merged.getCount() + rollup.getCount());
+            merged.setSum(merged.getSum() + rollup.getSum());
+            merged.setSumOfSquares(merged.getSumOfSquares() + rollup.getSumOfSquares());
+            merged.setGradeA(merged.getGradeA() + rollup.getGradeA());
+            merged.setGradeB(merged.getGradeB() + rollup.getGradeB());
+            merged.setGradeC(merged.getGradeC() + rollup.getGradeC());
+            merged.setGradeD(merged.getGradeD() + rollup.getGradeD());
+            merged.setGradeF(merged.getGradeF() + rollup.getGradeF());
+        }
+        return merged;
     }
 
-    @Transactional(readOnly = true)
-    public Map<String, Object> getStudentStatistics(String studentId) {
-        List<Grade> grades = gradeRepository.findByStudentId(studentId);
-        Double average = grades.isEmpty() ? null : 
-            grades.stream().mapToDouble(Grade::getNumericScore).average().orElse(0.0);
-        Double highest = grades.stream()
-                .mapToDouble(Grade::getNumericScore)
-                .max()
-                .orElse(0.0);
-        Double lowest = grades.stream()
-                .mapToDouble(Grade::getNumericScore)
-                .min()
-                .orElse(0.0);
+    private static Double averageOf(GradeRollup rollup) {
+        return rollup.getCount() == 0 ? null : rollup.getSum() / rollup.getCount();
+    }
 
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("average", average);
-        stats.put("highest", highest);
-        stats.put("lowest", lowest);
-        stats.put("totalGrades", grades.size());
-        stats.put("passing", grades.stream().filter(g -> g.getNumericScore() >= 60).count());
-        stats.put("failing", grades.stream().filter(g -> g.getNumericScore() < 60).count());
+    // Population standard deviation from the bucket moments, clamped against rounding below zero
+    private static Double standardDeviationOf(GradeRollup rollup) {
+        if (rollup.getCount() == 0) {
+            return null;
+        }
+        double mean = rollup.getSum() / rollup.getCount();
+        return Math.sqrt(Math.max(0.0, rollup.getSumOfSquares() / rollup.getCount() - mean * mean));
+    }
 
-        return stats;
+    private void validateScoreRange(double min, double max) {
+        if (min < 0 || max > 100 || min > max) {
+            throw new IllegalArgumentException("Score range must satisfy 0 <= min <= max <= 100");
+        }
     }
 }
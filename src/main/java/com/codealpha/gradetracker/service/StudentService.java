@@ -1,19 +1,34 @@
 package com.codealpha.gradetracker.service;
 
+import com.codealpha.gradetracker.dto.CursorPageDTO;
 import com.codealpha.gradetracker.dto.StudentDTO;
+import com.codealpha.gradetracker.event.StudentChangedEvent;
 import com.codealpha.gradetracker.exception.ResourceNotFoundException;
 import com.codealpha.gradetracker.model.Student;
 import com.codealpha.gradetracker.repository.GradeRepository;
 import com.codealpha.gradetracker.repository.StudentRepository;
+import com.codealpha.gradetracker.repository.projection.GradeAverage;
+import com.codealpha.gradetracker.search.TrigramIndex;
+import com.codealpha.gradetracker.util.ChunkedSource;
+import com.codealpha.gradetracker.util.FieldSelection;
+import com.codealpha.gradetracker.util.KeysetField;
+import com.codealpha.gradetracker.util.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,19 +38,120 @@ public class StudentService {
 
     private final StudentRepository studentRepository;
     private final GradeRepository gradeRepository;
+    private final SearchIndexService searchIndexService;
+    private final ApplicationEventPublisher eventPublisher;
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    public static final int MAX_PAGE_SIZE = 100;
+    // Students converted together when streaming; one grade aggregation per chunk
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    // Each is backed by an index ending in _id (see IndexInitializer) and is never null
+    private static final Map<String, KeysetField<Student>> KEYSET_FIELDS = KeysetField.byProperty(List.of(
+            new KeysetField<>("id", Student::getId, Function.identity()),
+            new KeysetField<>("lastName", Student::getLastName, Function.identity()),
+            new KeysetField<>("email", Student::getEmail, Function.identity())));
+
+    // Selectable DTO properties and the document fields each is built from; the rest are computed
+    private static final Map<String, List<String>> FIELD_SOURCES = Map.ofEntries(
+            Map.entry("id", List.of()),
+            Map.entry("firstName", List.of("firstName")),
+            Map.entry("lastName", List.of("lastName")),
+            Map.entry("email", List.of("email")),
+            Map.entry("phoneNumber", List.of("phoneNumber")),
+            Map.entry("address", List.of("address")),
+            Map.entry("enrollmentId", List.of("enrollmentId")),
+            Map.entry("active", List.of("active")),
+            Map.entry("createdAt", List.of("createdAt")),
+            Map.entry("updatedAt", List.of("updatedAt")),
+            Map.entry("averageGrade", List.of()),
+            Map.entry("totalGrades", List.of()),
+            Map.entry("status", List.of()));
+
+    /**
+     * Every student with only the properties named in {@code fields} (all when null); unselected
+     * document fields are not loaded and grade averages are only computed when asked for.
+     */
     @Transactional(readOnly = true)
-    public List<StudentDTO> getAllStudents() {
-        return studentRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<StudentDTO> getAllStudents(String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, FIELD_SOURCES);
+        List<Student> students = selection.isAll()
+                ? studentRepository.findAll()
+                : studentRepository.findAllIncluding(selection.getDocumentFields());
+        return convertToDTOs(students, selection);
+    }
+
+    /**
+     * Every student, read from a cursor and converted a chunk at a time.
+     */
+    public ChunkedSource<StudentDTO> streamAllStudents() {
+        return ChunkedSource.of(studentRepository::streamAllBy, STREAM_CHUNK_SIZE, this::convertToDTOs);
     }
 
     @Transactional(readOnly = true)
     public Page<StudentDTO> getAllStudents(Pageable pageable) {
-        return studentRepository.findAll(pageable)
-                .map(this::convertToDTO);
+        return getAllStudents(pageable, null);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<StudentDTO> getAllStudents(Pageable pageable, String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, FIELD_SOURCES);
+        Page<Student> students = selection.isAll()
+                ? studentRepository.findAll(pageable)
+                : studentRepository.findAllIncluding(pageable, selection.getDocumentFields());
+        return new PageImpl<>(convertToDTOs(students.getContent(), selection), students.getPageable(),
+                students.getTotalElements());
+    }
+
+    /**
+     * One keyset page of students. A cursor from a previous page carries its own sort, so
+     * {@code sortBy} and {@code sortDir} only apply to the first page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<StudentDTO> getStudentsAfter(String cursor, int size, String sortBy, String sortDir,
+                                                      boolean includeTotal) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        PageCursor position = cursor != null ? PageCursor.decode(cursor) : null;
+        KeysetField<Student> field = KeysetField.resolve(KEYSET_FIELDS, position != null ? position.sortBy() : sortBy);
+        Sort.Direction direction = position != null ? position.direction() : Sort.Direction.fromString(sortDir);
+
+        // One extra row tells whether another page follows without counting
+        List<Student> students = studentRepository.findKeysetPage(field.property(), direction,
+                position != null ? field.parse(position.lastValue()) : null,
+                position != null ? position.lastId() : null,
+                size + 1);
+        boolean hasNext = students.size() > size;
+        if (hasNext) {
+            students = students.subList(0, size);
+        }
+        Student last = hasNext ? students.get(size - 1) : null;
+
+        return CursorPageDTO.<StudentDTO>builder()
+                .content(convertToDTOs(students))
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(last != null
+                        ? new PageCursor(field.property(), direction, field.format(last), last.getId()).encode()
+                        : null)
+                .totalElements(includeTotal ? studentRepository.count() : null)
+                .build();
+    }
+
+    /**
+     * The students with the given ids, in request order; unknown ids are left out. Loaded with
+     * one query and enriched with one grade aggregation.
+     */
+    @Transactional(readOnly = true)
+    public List<StudentDTO> getStudentsByIds(List<String> ids) {
+        List<String> distinctIds = ids.stream().distinct().toList();
+        Map<String, Student> students = studentRepository.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        return convertToDTOs(distinctIds.stream()
+                .map(students::get)
+                .filter(Objects::nonNull)
+                .toList());
     }
 
     @Transactional(readOnly = true)
@@ -47,8 +163,26 @@ public class StudentService {
 
     @Transactional(readOnly = true)
     public Page<StudentDTO> searchStudents(String search, Pageable pageable) {
-        return studentRepository.searchStudents(search, pageable)
-                .map(this::convertToDTO);
+        // Ranked by the search index, which returns at most MAX_RESULTS hits; only the requested
+        // page of students is loaded, and pages past the last reachable hit are empty
+        int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), SearchIndexService.MAX_RESULTS);
+        TrigramIndex.Result result = searchIndexService.searchStudents(search, limit);
+        long total = Math.min(result.total(), SearchIndexService.MAX_RESULTS);
+        List<String> ids = result.hits().stream()
+                .skip(pageable.getOffset())
+                .map(TrigramIndex.Hit::id)
+                .toList();
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+
+        Map<String, Student> students = studentRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        List<Student> ranked = ids.stream()
+                .map(students::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(convertToDTOs(ranked), pageable, total);
     }
 
     @Transactional
@@ -68,6 +202,7 @@ public class StudentService {
                 .build();
 
         Student saved = studentRepository.save(student);
+        eventPublisher.publishEvent(StudentChangedEvent.saved(saved));
         log.info("Created new student: {}", saved.getEmail());
         return convertToDTO(saved);
     }
@@ -95,6 +230,7 @@ public class StudentService {
         }
 
         Student updated = studentRepository.save(student);
+        eventPublisher.publishEvent(StudentChangedEvent.saved(updated));
         log.info("Updated student: {}", updated.getEmail());
         return convertToDTO(updated);
     }
@@ -104,6 +240,7 @@ public class StudentService {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
         studentRepository.delete(student);
+        eventPublisher.publishEvent(StudentChangedEvent.deleted(student.getId()));
         log.info("Deleted student: {}", student.getEmail());
     }
 
@@ -112,18 +249,39 @@ public class StudentService {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
         student.setActive(false);
-        studentRepository.save(student);
+        Student deactivated = studentRepository.save(student);
+        eventPublisher.publishEvent(StudentChangedEvent.saved(deactivated));
         log.info("Deactivated student: {}", student.getEmail());
     }
 
     private StudentDTO convertToDTO(Student student) {
-        var grades = gradeRepository.findByStudentId(student.getId());
-        Double avgGrade = grades.isEmpty() ? null : 
-            grades.stream()
-                .mapToDouble(g -> g.getNumericScore())
-                .average()
-                .orElse(0.0);
-        int totalGrades = grades.size();
+        return convertToDTOs(List.of(student)).get(0);
+    }
+
+    private List<StudentDTO> convertToDTOs(List<Student> students) {
+        return convertToDTOs(students, FieldSelection.all());
+    }
+
+    // Grade averages for the whole batch come from one grouped aggregation instead of a query per student
+    private List<StudentDTO> convertToDTOs(List<Student> students, FieldSelection selection) {
+        Map<String, GradeAverage> averages = selection.includesAny("averageGrade", "totalGrades", "status")
+                ? averagesOf(students)
+                : Map.of();
+
+        return students.stream()
+                .map(student -> convertToDTO(student, averages.get(student.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, GradeAverage> averagesOf(Collection<Student> students) {
+        return gradeRepository.averageByStudentIds(
+                        students.stream().map(Student::getId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(GradeAverage::getId, Function.identity()));
+    }
+
+    private StudentDTO convertToDTO(Student student, GradeAverage grades) {
+        Double avgGrade = grades == null ? null : grades.getAverageGrade();
+        int totalGrades = grades == null ? 0 : grades.getGradeCount().intValue();
 
         return StudentDTO.builder()
                 .id(student.getId())
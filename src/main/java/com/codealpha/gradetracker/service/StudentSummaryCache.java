@@ -0,0 +1,50 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.event.StudentChangedEvent;
+import com.codealpha.gradetracker.repository.StudentRepository;
+import com.codealpha.gradetracker.repository.projection.StudentSummary;
+import com.codealpha.gradetracker.util.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Recently used student display fields, bounded to {@code app.cache.students.max-size} entries.
+ * Misses in a batch are loaded with one {@code $in} query; an entry is dropped whenever its
+ * student is written.
+ */
+@Component
+public class StudentSummaryCache {
+
+    private final StudentRepository studentRepository;
+    private final LruCache<String, StudentSummary> cache;
+
+    public StudentSummaryCache(StudentRepository studentRepository,
+                               @Value("${app.cache.students.max-size:10000}") int maxSize) {
+        this.studentRepository = studentRepository;
+        this.cache = new LruCache<>(maxSize);
+    }
+
+    public Map<String, StudentSummary> findAll(Collection<String> ids) {
+        return cache.getAll(ids, missing -> {
+            Map<String, StudentSummary> loaded = new HashMap<>();
+            for (StudentSummary student : studentRepository.findSummariesByIdIn(missing)) {
+                loaded.put(student.getId(), student);
+            }
+            return loaded;
+        });
+    }
+
+    @EventListener
+    public void onStudentChanged(StudentChangedEvent event) {
+        cache.invalidate(event.studentId());
+    }
+
+    public LruCache.Stats getStats() {
+        return cache.getStats();
+    }
+}
@@ -0,0 +1,48 @@
+package com.codealpha.gradetracker.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Rebuilds state derived from grades without losing writes that land while the scan
+ * runs. The owner bumps a version under its lock for every {@code GradeChangedEvent}, including
+ * the ones it ignores before its first rebuild; a scan whose version moved before it could be
+ * installed is repeated, since it may or may not include those writes.
+ */
+@Slf4j
+final class VersionedRebuild {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private VersionedRebuild() {
+    }
+
+    /**
+     * Runs {@code scan} outside {@code lock} and {@code install}s its result under it, rescanning
+     * up to {@link #MAX_ATTEMPTS} times while {@code version} keeps moving. The last result is
+     * installed regardless; the drift check repairs anything it missed.
+     */
+    static <T> void run(String name, Object lock, LongSupplier version, Supplier<T> scan, Consumer<T> install) {
+        for (int attempt = 1; ; attempt++) {
+            long before;
+            synchronized (lock) {
+                before = version.getAsLong();
+            }
+            T result = scan.get();
+            synchronized (lock) {
+                boolean changed = version.getAsLong() != before;
+                if (!changed || attempt == MAX_ATTEMPTS) {
+                    install.accept(result);
+                    if (changed) {
+                        log.warn("Grades changed during all {} attempts to rebuild the {}, installing the last scan", attempt, name);
+                    }
+                    return;
+                }
+            }
+            log.debug("Grades changed during {} rebuild, rescanning", name);
+        }
+    }
+}
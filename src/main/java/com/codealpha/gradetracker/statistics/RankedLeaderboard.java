@@ -0,0 +1,184 @@
+package com.codealpha.gradetracker.statistics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Ids ranked by score, highest first (ties broken by id), kept in an order-statistics treap.
+ * Updates are O(log n) and a page of {@code k} entries at any offset is O(log n + k).
+ * Not thread-safe.
+ */
+public final class RankedLeaderboard {
+
+    private final Map<String, Double> scores = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom(0x5EEDL);
+    private Node root;
+
+    public record Entry(String id, double score) {
+    }
+
+    /**
+     * Inserts {@code id} or moves it to its new position if it is already ranked.
+     */
+    public void put(String id, double score) {
+        remove(id);
+        scores.put(id, score);
+        Node node = new Node(id, score, random.nextInt());
+        Node[] parts = split(root, id, score);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    public boolean remove(String id) {
+        Double score = scores.remove(id);
+        if (score == null) {
+            return false;
+        }
+        root = remove(root, id, score);
+        return true;
+    }
+
+    public void clear() {
+        scores.clear();
+        root = null;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean contains(String id) {
+        return scores.containsKey(id);
+    }
+
+    /**
+     * Zero-based rank of {@code id}, or -1 if it is not ranked.
+     */
+    public int rankOf(String id) {
+        Double score = scores.get(id);
+        if (score == null) {
+            return -1;
+        }
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int comparison = compare(id, score, node);
+            if (comparison == 0) {
+                return rank + size(node.left);
+            }
+            if (comparison < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        throw new IllegalStateException("Leaderboard index is inconsistent for id " + id);
+    }
+
+    /**
+     * Up to {@code limit} entries starting at zero-based rank {@code offset}.
+     */
+    public List<Entry> page(int offset, int limit) {
+        List<Entry> entries = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+        if (offset >= 0 && limit > 0) {
+            collect(root, offset, limit, entries);
+        }
+        return entries;
+    }
+
+    private static void collect(Node node, int skip, int limit, List<Entry> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        int leftSize = size(node.left);
+        if (skip < leftSize) {
+            collect(node.left, skip, limit, out);
+        }
+        if (out.size() >= limit) {
+            return;
+        }
+        if (skip <= leftSize) {
+            out.add(new Entry(node.id, node.score));
+        }
+        collect(node.right, Math.max(0, skip - leftSize - 1), limit, out);
+    }
+
+    // Negative when (id, score) ranks before the node: higher score first, then smaller id
+    private static int compare(String id, double score, Node node) {
+        int byScore = Double.compare(node.score, score);
+        return byScore != 0 ? byScore : id.compareTo(node.id);
+    }
+
+    // Splits into nodes ranking before (id, score) and the rest
+    private static Node[] split(Node node, String id, double score) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(id, score, node) > 0) {
+            Node[] parts = split(node.right, id, score);
+            node.right = parts[0];
+            node.update();
+            return new Node[]{node, parts[1]};
+        }
+        Node[] parts = split(node.left, id, score);
+        node.left = parts[1];
+        node.update();
+        return new Node[]{parts[0], node};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node remove(Node node, String id, double score) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(id, score, node);
+        if (comparison == 0) {
+            return merge(node.left, node.right);
+        }
+        if (comparison < 0) {
+            node.left = remove(node.left, id, score);
+        } else {
+            node.right = remove(node.right, id, score);
+        }
+        node.update();
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node {
+        private final String id;
+        private final double score;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(String id, double score, int priority) {
+            this.id = id;
+            this.score = score;
+            this.priority = priority;
+        }
+
+        private void update() {
+            size = 1 + RankedLeaderboard.size(left) + RankedLeaderboard.size(right);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.codealpha.gradetracker.statistics;
+
+/**
+ * Cumulative counts over score buckets of 0.01 points (0.00 - 100.00), backed by a Fenwick tree.
+ * Point updates, prefix counts and range counts are all O(log buckets).
+ */
+public final class ScoreFenwickTree {
+
+    public static final int RESOLUTION = 100;
+    public static final int BUCKETS = 100 * RESOLUTION + 1;
+
+    private final long[] tree = new long[BUCKETS + 1];
+    private long total;
+
+    /**
+     * Bucket holding {@code score}, clamped to the valid score range.
+     */
+    public static int bucketOf(double score) {
+        // The epsilon keeps scores such as 72.00 from landing in 71.99 after scaling
+        int bucket = (int) Math.floor(score * RESOLUTION + 1e-6);
+        return Math.max(0, Math.min(BUCKETS - 1, bucket));
+    }
+
+    public void add(double score, long delta) {
+        total += delta;
+        for (int i = bucketOf(score) + 1; i <= BUCKETS; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Number of entries in buckets {@code 0..bucket} inclusive.
+     */
+    public long countUpTo(int bucket) {
+        if (bucket < 0) {
+            return 0;
+        }
+        long count = 0;
+        for (int i = Math.min(bucket, BUCKETS - 1) + 1; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    /**
+     * Number of entries in buckets {@code fromBucket..toBucket} inclusive.
+     */
+    public long countBetween(int fromBucket, int toBucket) {
+        if (fromBucket > toBucket) {
+            return 0;
+        }
+        return countUpTo(toBucket) - countUpTo(fromBucket - 1);
+    }
+
+    /**
+     * Number of entries with a score in {@code [min, max]}.
+     */
+    public long countBetween(double min, double max) {
+        return countBetween(bucketOf(min), bucketOf(max));
+    }
+
+    public long countBelow(double score) {
+        return countUpTo(bucketOf(score) - 1);
+    }
+
+    public long countAt(double score) {
+        int bucket = bucketOf(score);
+        return countBetween(bucket, bucket);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,268 @@
+package com.codealpha.gradetracker.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Descriptive statistics over grade scores, computed in a single pass without boxing.
+ * <p>
+ * Scores are validated to 0-100, so besides the running moments (weighted Welford) the
+ * accumulator keeps a 101-bucket histogram of whole points and a count per distinct score, held
+ * in ascending order. Memory is bounded by the number of distinct scores rather than by the
+ * number of scores. Exact order statistics are found by walking the histogram to the bucket
+ * that holds the requested rank and then the distinct scores inside it, without allocating.
+ */
+public final class ScoreStatistics {
+
+    public static final int LETTER_A = 0;
+    public static final int LETTER_B = 1;
+    public static final int LETTER_C = 2;
+    public static final int LETTER_D = 3;
+    public static final int LETTER_F = 4;
+
+    private static final int BUCKETS = 101;
+    private static final double PASSING_SCORE = 60.0;
+
+    private final long count;
+    private final double mean;
+    private final double variance;
+    private final double min;
+    private final double max;
+    private final long[] letterCounts;
+
+    // Distinct scores in ascending order with their counts, for exact order statistics
+    private final double[] values;
+    private final long[] weights;
+    private final int size;
+    private final long[] buckets;
+
+    private ScoreStatistics(Accumulator accumulator) {
+        this.count = accumulator.count;
+        this.mean = accumulator.mean;
+        this.variance = accumulator.count == 0 ? Double.NaN : accumulator.m2 / accumulator.count;
+        this.min = accumulator.min;
+        this.max = accumulator.max;
+        this.letterCounts = accumulator.letterCounts;
+        this.values = accumulator.values;
+        this.weights = accumulator.weights;
+        this.size = accumulator.size;
+        this.buckets = accumulator.buckets;
+    }
+
+    public static ScoreStatistics of(double... scores) {
+        Accumulator accumulator = new Accumulator(Math.min(scores.length, BUCKETS));
+        for (double score : scores) {
+            accumulator.add(score);
+        }
+        return accumulator.build();
+    }
+
+    public static Accumulator accumulator() {
+        return new Accumulator(16);
+    }
+
+    /**
+     * Letter grade bucket of a score, using the same thresholds as {@code Grade.getLetterGrade()}.
+     */
+    public static int letterIndex(double score) {
+        if (score >= 90) return LETTER_A;
+        if (score >= 80) return LETTER_B;
+        if (score >= 70) return LETTER_C;
+        if (score >= 60) return LETTER_D;
+        return LETTER_F;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return isEmpty() ? Double.NaN : mean;
+    }
+
+    /**
+     * Population variance, matching the standard deviation the API has always reported.
+     */
+    public double getVariance() {
+        return variance;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(variance);
+    }
+
+    public double getMin() {
+        return isEmpty() ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return isEmpty() ? Double.NaN : max;
+    }
+
+    public long getLetterCount(int letterIndex) {
+        return letterCounts[letterIndex];
+    }
+
+    public long getPassing() {
+        return count - letterCounts[LETTER_F];
+    }
+
+    public long getFailing() {
+        return letterCounts[LETTER_F];
+    }
+
+    /**
+     * Median, averaging the two middle scores when the count is even.
+     */
+    public double getMedian() {
+        if (isEmpty()) {
+            return Double.NaN;
+        }
+        long upper = count / 2;
+        return count % 2 == 1 ? interpolate(upper, 0.0) : interpolate(upper - 1, 0.5);
+    }
+
+    /**
+     * Quantile for {@code q} in [0, 1], linearly interpolating between adjacent order statistics.
+     */
+    public double quantile(double q) {
+        if (q < 0.0 || q > 1.0) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        if (isEmpty()) {
+            return Double.NaN;
+        }
+        double position = q * (count - 1);
+        long lower = (long) Math.floor(position);
+        return interpolate(lower, position - lower);
+    }
+
+    /**
+     * The score at zero-based position {@code rank} in ascending order.
+     */
+    public double orderStatistic(long rank) {
+        if (rank < 0 || rank >= count) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " outside 0.." + (count - 1));
+        }
+        return interpolate(rank, 0.0);
+    }
+
+    // The score at rank, moved fraction of the way towards the score at rank + 1, in one walk
+    private double interpolate(long rank, double fraction) {
+        int bucket = 0;
+        long through = 0;
+        while (through + buckets[bucket] <= rank) {
+            through += buckets[bucket];
+            bucket++;
+        }
+
+        // Distinct scores are sorted, so the bucket's scores start at the first one >= bucket
+        int index = bucket == 0 ? 0 : firstAtLeast(bucket);
+        while (true) {
+            through += weights[index];
+            if (rank < through) {
+                break;
+            }
+            index++;
+        }
+
+        double value = values[index];
+        if (fraction == 0.0) {
+            return value;
+        }
+        double next = rank + 1 < through ? value : values[index + 1];
+        return value + fraction * (next - value);
+    }
+
+    private int firstAtLeast(double score) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < score) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int bucketOf(double score) {
+        if (score <= 0) return 0;
+        if (score >= BUCKETS - 1) return BUCKETS - 1;
+        return (int) score;
+    }
+
+    /**
+     * Single-pass builder. Not thread-safe, and must not be used after {@link #build()}.
+     */
+    public static final class Accumulator {
+
+        private double[] values;
+        private long[] weights;
+        private int size;
+        private final long[] buckets = new long[BUCKETS];
+        private final long[] letterCounts = new long[5];
+        private long count;
+        private double mean;
+        private double m2;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        private Accumulator(int initialCapacity) {
+            int capacity = Math.max(initialCapacity, 1);
+            this.values = new double[capacity];
+            this.weights = new long[capacity];
+        }
+
+        public Accumulator add(double score) {
+            return add(score, 1L);
+        }
+
+        /**
+         * Adds {@code occurrences} copies of {@code score}, for callers that already hold counts.
+         */
+        public Accumulator add(double score, long occurrences) {
+            if (occurrences <= 0) {
+                return this;
+            }
+            int index = Arrays.binarySearch(values, 0, size, score);
+            if (index >= 0) {
+                weights[index] += occurrences;
+            } else {
+                insert(-index - 1, score, occurrences);
+            }
+
+            count += occurrences;
+            double delta = score - mean;
+            mean += delta * occurrences / count;
+            m2 += occurrences * delta * (score - mean);
+
+            if (score < min) min = score;
+            if (score > max) max = score;
+            buckets[bucketOf(score)] += occurrences;
+            letterCounts[letterIndex(score)] += occurrences;
+            return this;
+        }
+
+        private void insert(int index, double score, long occurrences) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            System.arraycopy(weights, index, weights, index + 1, size - index);
+            values[index] = score;
+            weights[index] = occurrences;
+            size++;
+        }
+
+        public ScoreStatistics build() {
+            return new ScoreStatistics(this);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.codealpha.gradetracker.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Rows handed to a sink a chunk at a time, so a caller can write an unbounded result while
+ * holding only one chunk in memory. Nothing is read until {@link #forEachChunk} is called.
+ */
+@FunctionalInterface
+public interface ChunkedSource<T> {
+
+    void forEachChunk(Consumer<List<T>> sink);
+
+    /**
+     * Reads {@code rows} in chunks of {@code chunkSize}, converting each chunk as a whole, and
+     * closes the stream (and the cursor behind it) afterwards.
+     */
+    static <E, T> ChunkedSource<T> of(Supplier<Stream<E>> rows, int chunkSize,
+                                      Function<List<E>, List<T>> convert) {
+        return sink -> {
+            try (Stream<E> stream = rows.get()) {
+                Iterator<E> iterator = stream.iterator();
+                List<E> chunk = new ArrayList<>(chunkSize);
+                while (iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                    if (chunk.size() == chunkSize) {
+                        sink.accept(convert.apply(chunk));
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    sink.accept(convert.apply(chunk));
+                }
+            }
+        };
+    }
+}
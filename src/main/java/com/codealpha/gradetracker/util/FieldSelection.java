@@ -0,0 +1,120 @@
+package com.codealpha.gradetracker.util;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The DTO properties a client asked for with {@code ?fields=a,b,c}, and the document fields
+ * needed to fill them. {@code id} is always included. Without a {@code fields} parameter every
+ * property is selected.
+ * <p>
+ * DTOs annotated with {@code @JsonFilter(FieldSelection.FILTER_ID)} are serialized with only the
+ * selected properties.
+ */
+public final class FieldSelection {
+
+    public static final String FILTER_ID = "fieldSelection";
+    public static final String PARAMETER = "fields";
+
+    private static final FieldSelection ALL = new FieldSelection(null, null);
+    private static final FilterProvider SERIALIZE_ALL = new SimpleFilterProvider()
+            .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+
+    private final Set<String> properties;
+    private final Set<String> documentFields;
+
+    private FieldSelection(Set<String> properties, Set<String> documentFields) {
+        this.properties = properties;
+        this.documentFields = documentFields;
+    }
+
+    public static FieldSelection all() {
+        return ALL;
+    }
+
+    /**
+     * Parses {@code fields} against {@code sources}, which maps every selectable property to
+     * the document fields it is built from (empty for computed properties).
+     *
+     * @throws IllegalArgumentException for a property that is not in {@code sources}
+     */
+    public static FieldSelection parse(String fields, Map<String, List<String>> sources) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> properties = new LinkedHashSet<>();
+        Set<String> documentFields = new LinkedHashSet<>();
+        properties.add("id");
+        for (String property : names(fields)) {
+            List<String> needed = sources.get(property);
+            if (needed == null) {
+                throw new IllegalArgumentException("Unknown field: " + property);
+            }
+            properties.add(property);
+            documentFields.addAll(needed);
+        }
+        return new FieldSelection(Set.copyOf(properties), Set.copyOf(documentFields));
+    }
+
+    public boolean isAll() {
+        return properties == null;
+    }
+
+    public boolean includes(String property) {
+        return properties == null || properties.contains(property);
+    }
+
+    public boolean includesAny(String... properties) {
+        return Arrays.stream(properties).anyMatch(this::includes);
+    }
+
+    /**
+     * Document fields to project, or null when whole documents are needed.
+     */
+    public Set<String> getDocumentFields() {
+        return documentFields;
+    }
+
+    public FilterProvider filters() {
+        return properties == null ? SERIALIZE_ALL : filters(properties);
+    }
+
+    /**
+     * Serialization filters for a raw {@code fields} parameter whose names were already validated.
+     */
+    public static FilterProvider filters(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return SERIALIZE_ALL;
+        }
+        Set<String> properties = new LinkedHashSet<>(names(fields));
+        properties.add("id");
+        return filters(properties);
+    }
+
+    /**
+     * Filters that serialize every property, for writers that never select fields.
+     */
+    public static FilterProvider serializeAll() {
+        return SERIALIZE_ALL;
+    }
+
+    private static FilterProvider filters(Set<String> properties) {
+        return new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(properties));
+    }
+
+    private static Collection<String> names(String fields) {
+        return Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,39 @@
+package com.codealpha.gradetracker.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A field that keyset pagination may sort on: how to read its value from the last entity of a
+ * page and how to parse it back from a continuation token. Values must never be null, and the
+ * field must be backed by an index ending in {@code _id} so every page is an index range scan.
+ */
+public record KeysetField<T>(String property, Function<T, ?> extractor, Function<String, ?> parser) {
+
+    public String format(T entity) {
+        return String.valueOf(extractor.apply(entity));
+    }
+
+    public Object parse(String value) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public static <T> Map<String, KeysetField<T>> byProperty(List<KeysetField<T>> fields) {
+        return fields.stream().collect(Collectors.toUnmodifiableMap(KeysetField::property, Function.identity()));
+    }
+
+    public static <T> KeysetField<T> resolve(Map<String, KeysetField<T>> fields, String property) {
+        KeysetField<T> field = fields.get(property);
+        if (field == null) {
+            throw new IllegalArgumentException("Cannot sort by '" + property + "', supported fields: "
+                    + fields.keySet().stream().sorted().collect(Collectors.joining(", ")));
+        }
+        return field;
+    }
+}
@@ -0,0 +1,139 @@
+package com.codealpha.gradetracker.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Size-bounded cache that evicts the least recently used entry once {@code capacity} is
+ * exceeded. Misses are loaded in one batch per call, outside the lock; a value whose key was
+ * invalidated while its batch was loading is returned but not cached, while the rest of the batch
+ * still is. Keys the loader does not return are not cached either, so they are looked up again
+ * next time.
+ */
+public class LruCache<K, V> {
+
+    public record Stats(int size, int capacity, long hits, long misses, double hitRatio,
+                        long evictions, long loads, double averageLoadMillis) {
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<K, V> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long loads;
+    private long loadNanos;
+    // Batches currently being loaded, so invalidations can mark the keys they must not cache
+    private final Set<PendingLoad<K>> pendingLoads = new HashSet<>();
+
+    public LruCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Values for {@code keys}, loading every missing key with a single call to {@code loader}.
+     * Keys without a value are absent from the result.
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<Set<K>, Map<K, V>> loader) {
+        Map<K, V> found = new HashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        PendingLoad<K> pending;
+        synchronized (this) {
+            for (K key : keys) {
+                V value = entries.get(key);
+                if (value != null) {
+                    found.put(key, value);
+                } else {
+                    missing.add(key);
+                }
+            }
+            hits += found.size();
+            misses += missing.size();
+            if (missing.isEmpty()) {
+                return found;
+            }
+            pending = new PendingLoad<>(missing);
+            pendingLoads.add(pending);
+        }
+
+        long start = System.nanoTime();
+        Map<K, V> loaded;
+        try {
+            loaded = loader.apply(missing);
+        } finally {
+            synchronized (this) {
+                pendingLoads.remove(pending);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        synchronized (this) {
+            loads++;
+            loadNanos += elapsed;
+            if (!pending.allInvalidated) {
+                loaded.forEach((key, value) -> {
+                    if (!pending.invalidated.contains(key)) {
+                        entries.put(key, value);
+                    }
+                });
+            }
+        }
+        found.putAll(loaded);
+        return found;
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        for (PendingLoad<K> pending : pendingLoads) {
+            if (pending.keys.contains(key)) {
+                pending.invalidated.add(key);
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        for (PendingLoad<K> pending : pendingLoads) {
+            pending.allInvalidated = true;
+        }
+    }
+
+    public synchronized Stats getStats() {
+        long requests = hits + misses;
+        return new Stats(entries.size(), capacity, hits, misses,
+                requests == 0 ? 0.0 : (double) hits / requests,
+                evictions, loads,
+                loads == 0 ? 0.0 : loadNanos / 1_000_000.0 / loads);
+    }
+
+    // Identity-compared on purpose: two batches for the same keys are tracked separately
+    private static final class PendingLoad<K> {
+        private final Set<K> keys;
+        private final Set<K> invalidated = new HashSet<>();
+        private boolean allInvalidated;
+
+        private PendingLoad(Set<K> keys) {
+            this.keys = keys;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.codealpha.gradetracker.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Writes a {@link ChunkedSource} as newline-delimited JSON, one object per line. The output is
+ * flushed after every chunk so clients see rows as soon as they are converted.
+ */
+public final class NdjsonWriter {
+
+    private NdjsonWriter() {
+    }
+
+    public static <T> StreamingResponseBody body(ObjectMapper objectMapper, ChunkedSource<T> source) {
+        // Flushed per chunk below rather than per row
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // Rows are separated by the newline written after each one, not Jackson's default space
+                generator.setRootValueSeparator(null);
+                try {
+                    source.forEachChunk(chunk -> writeChunk(writer, generator, chunk));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+    }
+
+    private static <T> void writeChunk(ObjectWriter writer, JsonGenerator generator, List<T> chunk) {
+        try {
+            for (T row : chunk) {
+                writer.writeValue(generator, row);
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        } catch (IOException e) {
+            // Usually the client went away; stop reading the cursor
+            throw new UncheckedIOException(e);
+        }
+    }
+}
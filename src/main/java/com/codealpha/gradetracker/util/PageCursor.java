@@ -0,0 +1,33 @@
+package com.codealpha.gradetracker.util;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token of a keyset page: the sort it belongs to, plus the sort key and id
+ * of the last row returned. Clients pass it back unchanged to fetch the following page.
+ */
+public record PageCursor(String sortBy, Sort.Direction direction, String lastValue, String lastId) {
+
+    private static final String SEPARATOR = "\u001f";
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortBy, direction.name(), lastValue, lastId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (parts.length != 4 || Sort.Direction.fromOptionalString(parts[1]).isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new PageCursor(parts[0], Sort.Direction.valueOf(parts[1]), parts[2], parts[3]);
+    }
+}
@@ -0,0 +1,18 @@
+package com.codealpha.gradetracker.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler whose {@code fields} parameter is validated with {@link FieldSelection#parse},
+ * so its response is serialized with only the selected properties. Other handlers ignore
+ * {@code fields}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SelectableFields {
+}
@@ -0,0 +1,120 @@
+package com.codealpha.gradetracker.util;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces concurrent calls for the same key into one computation. The first caller runs the
+ * loader; callers that arrive while it is running wait for and share its result. A completed
+ * result is also reused for {@code freshness} after it finished; older results are evicted, so
+ * only results from the freshness window are retained.
+ */
+public class SingleFlight<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<V, E extends Exception> {
+        V load() throws E;
+    }
+
+    public record Stats(long calls, long executions, long coalesced, long freshHits, int retained) {
+    }
+
+    private record Completed<V>(V value, long completedAtNanos) {
+    }
+
+    private final long freshnessNanos;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<K, Completed<V>> recent = new ConcurrentHashMap<>();
+
+    // Bumped by invalidateAll so a load that started before it does not publish its result
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong freshHits = new AtomicLong();
+
+    public SingleFlight(Duration freshness) {
+        this.freshnessNanos = freshness.toNanos();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <E extends Exception> V execute(K key, Loader<V, E> loader) throws E {
+        calls.incrementAndGet();
+
+        Completed<V> completed = recent.get(key);
+        if (completed != null) {
+            if (isFresh(completed, System.nanoTime())) {
+                freshHits.incrementAndGet();
+                return completed.value();
+            }
+            recent.remove(key, completed);
+        }
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            try {
+                return existing.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for in-flight computation", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+                if (cause instanceof Error error) throw error;
+                // The leader ran the same operation, so its checked exception is of type E
+                throw (E) cause;
+            }
+        }
+
+        executions.incrementAndGet();
+        long startGeneration = generation.get();
+        try {
+            V value = loader.load();
+            if (freshnessNanos > 0) {
+                retain(key, new Completed<>(value, System.nanoTime()), startGeneration);
+            }
+            future.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Drops completed results so the next call recomputes. In-flight computations are unaffected.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        recent.clear();
+    }
+
+    public Stats getStats() {
+        return new Stats(calls.get(), executions.get(), coalesced.get(), freshHits.get(), recent.size());
+    }
+
+    private void retain(K key, Completed<V> completed, long startGeneration) {
+        recent.put(key, completed);
+        // invalidateAll bumps the generation before clearing, so either the clear removes this
+        // entry or the changed generation is seen here
+        if (generation.get() != startGeneration) {
+            recent.remove(key, completed);
+        }
+        // Loads are the expensive path, so sweeping here keeps the map to the freshness window
+        long now = System.nanoTime();
+        recent.values().removeIf(entry -> !isFresh(entry, now));
+    }
+
+    private boolean isFresh(Completed<V> completed, long now) {
+        return now - completed.completedAtNanos() < freshnessNanos;
+    }
+}
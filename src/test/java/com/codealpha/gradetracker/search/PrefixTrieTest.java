@@ -0,0 +1,99 @@
+package com.codealpha.gradetracker.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixTrieTest {
+
+    private static List<String> ids(List<PrefixTrie.Entry> entries) {
+        return entries.stream().map(PrefixTrie.Entry::id).toList();
+    }
+
+    @Test
+    void search_ReturnsEntriesUnderPrefixRankedByWeight() {
+        PrefixTrie trie = new PrefixTrie(10);
+        trie.add("john doe", new PrefixTrie.Entry("1", "John Doe", 2));
+        trie.add("johnny roe", new PrefixTrie.Entry("2", "Johnny Roe", 2));
+        trie.add("joan smith", new PrefixTrie.Entry("3", "Joan Smith", 2));
+        trie.add("jo-001", new PrefixTrie.Entry("4", "Jo Identifier", 3));
+
+        assertEquals(List.of("4", "3", "1", "2"), ids(trie.search("jo", 10)));
+        assertEquals(List.of("1", "2"), ids(trie.search("john", 10)));
+        assertEquals(List.of("2"), ids(trie.search("johnn", 10)));
+        assertEquals(List.of("1"), ids(trie.search("john doe", 10)));
+        assertTrue(trie.search("john doe jr", 10).isEmpty());
+        assertTrue(trie.search("x", 10).isEmpty());
+        assertEquals(4, trie.search("", 10).size());
+    }
+
+    @Test
+    void search_ReturnsEachEntryOnceAndHonoursLimit() {
+        PrefixTrie trie = new PrefixTrie(3);
+        trie.add("doe", new PrefixTrie.Entry("1", "John Doe", 1));
+        trie.add("doe@uni.edu", new PrefixTrie.Entry("1", "John Doe", 1));
+        for (int i = 2; i <= 6; i++) {
+            trie.add("dora " + i, new PrefixTrie.Entry(String.valueOf(i), "Dora " + i, 1));
+        }
+
+        List<PrefixTrie.Entry> hits = trie.search("do", 10);
+
+        assertEquals(3, hits.size()); // capped at capacity
+        assertEquals(3, hits.stream().map(PrefixTrie.Entry::id).distinct().count());
+        assertEquals(1, trie.search("do", 1).size());
+    }
+
+    @Test
+    void remove_RefreshesCachedTopEntries() {
+        PrefixTrie trie = new PrefixTrie(2);
+        trie.add("alpha", new PrefixTrie.Entry("1", "Alpha", 3));
+        trie.add("alps", new PrefixTrie.Entry("2", "Alps", 2));
+        trie.add("altitude", new PrefixTrie.Entry("3", "Altitude", 1));
+        assertEquals(List.of("1", "2"), ids(trie.search("al", 10)));
+
+        assertTrue(trie.remove("alpha", "1"));
+        assertFalse(trie.remove("alpha", "1"));
+        assertFalse(trie.remove("alp", "2"));
+
+        assertEquals(List.of("2", "3"), ids(trie.search("al", 10)));
+        assertTrue(trie.search("alph", 10).isEmpty());
+    }
+
+    @Test
+    void add_SameIdUnderSameKeyReplacesEntry() {
+        PrefixTrie trie = new PrefixTrie(5);
+        trie.add("smith", new PrefixTrie.Entry("1", "Bob Smith", 1));
+        trie.add("smith", new PrefixTrie.Entry("1", "Robert Smith", 1));
+
+        List<PrefixTrie.Entry> hits = trie.search("smi", 5);
+
+        assertEquals(1, hits.size());
+        assertEquals("Robert Smith", hits.get(0).label());
+    }
+
+    @Test
+    void replaceAll_MatchesIncrementalAdds() {
+        PrefixTrie incremental = new PrefixTrie(2);
+        PrefixTrie bulk = new PrefixTrie(2);
+        bulk.add("stale", new PrefixTrie.Entry("9", "Stale", 5));
+        List<String> keys = List.of("alpha", "alps", "altitude", "beta", "al");
+        for (int i = 0; i < keys.size(); i++) {
+            incremental.add(keys.get(i), new PrefixTrie.Entry(String.valueOf(i), keys.get(i), i % 3));
+        }
+
+        bulk.replaceAll(add -> {
+            for (int i = 0; i < keys.size(); i++) {
+                add.accept(keys.get(i), new PrefixTrie.Entry(String.valueOf(i), keys.get(i), i % 3));
+            }
+        });
+
+        for (String prefix : List.of("", "a", "al", "alp", "b", "stale")) {
+            assertEquals(incremental.search(prefix, 10), bulk.search(prefix, 10), prefix);
+        }
+        // Incremental writes still work after a bulk load
+        bulk.add("alpine", new PrefixTrie.Entry("5", "Alpine", 9));
+        assertEquals(List.of("5", "1"), ids(bulk.search("alp", 10)));
+    }
+}
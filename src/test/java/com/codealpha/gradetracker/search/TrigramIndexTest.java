@@ -0,0 +1,99 @@
+package com.codealpha.gradetracker.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private static List<String> ids(TrigramIndex.Result result) {
+        return result.hits().stream().map(TrigramIndex.Hit::id).toList();
+    }
+
+    private static TrigramIndex students() {
+        TrigramIndex index = new TrigramIndex(2, 1, 3); // name, email, enrollment id
+        index.put("1", "John Doe", "john.doe@uni.edu", "ENR001");
+        index.put("2", "Jane Johnson", "jane.j@uni.edu", "ENR002");
+        index.put("3", "Bob Smith", "bob@uni.edu", "ENR003");
+        index.put("4", "Jos\u00e9 Garc\u00eda", "jose@uni.edu", "ENR004");
+        return index;
+    }
+
+    @Test
+    void search_MatchesSubstringsAcrossFields() {
+        TrigramIndex index = students();
+
+        assertEquals(List.of("3"), ids(index.search("smit", 10)));
+        assertEquals(List.of("2"), ids(index.search("jane.j@", 10)));
+        assertEquals(4, index.search("uni.edu", 10).total());
+        assertEquals(0, index.search("xyz", 10).total());
+    }
+
+    @Test
+    void search_RanksExactAndPrefixMatchesFirst() {
+        TrigramIndex index = students();
+
+        // Enrollment id is weighted highest and matched exactly
+        assertEquals(List.of("2"), ids(index.search("enr002", 1)));
+        // "John Doe" starts with the query, "Jane Johnson" only has a word starting with it
+        assertEquals(List.of("1", "2"), ids(index.search("john", 10)));
+    }
+
+    @Test
+    void search_ShortQueriesMatchWordPrefixesOnly() {
+        TrigramIndex index = students();
+
+        assertEquals(List.of("1", "4", "2"), ids(index.search("jo", 10)));
+        assertTrue(ids(index.search("mi", 10)).isEmpty(), "'mi' only occurs inside a word");
+        assertEquals(List.of("3"), ids(index.search("S", 10)));
+    }
+
+    @Test
+    void search_IgnoresCaseAndAccents() {
+        TrigramIndex index = students();
+
+        assertEquals(List.of("4"), ids(index.search("GARCIA", 10)));
+        assertEquals(List.of("4"), ids(index.search("jos\u00e9", 10)));
+    }
+
+    @Test
+    void search_LimitsHitsButCountsAllMatches() {
+        TrigramIndex index = students();
+
+        TrigramIndex.Result result = index.search("enr", 2);
+
+        assertEquals(4, result.total());
+        assertEquals(2, result.hits().size());
+    }
+
+    @Test
+    void putAndRemove_KeepIndexCurrent() {
+        TrigramIndex index = students();
+
+        index.put("3", "Robert Smithers", "rob@uni.edu", "ENR003");
+        assertEquals(List.of("3"), ids(index.search("smithers", 10)));
+        assertEquals(0, index.search("bob", 10).total());
+
+        assertTrue(index.remove("3"));
+        assertFalse(index.remove("3"));
+        assertEquals(0, index.search("smith", 10).total());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void remove_CompactsWithoutLosingLiveDocuments() {
+        TrigramIndex index = new TrigramIndex(1);
+        for (int i = 0; i < 5000; i++) {
+            index.put("s" + i, "student " + i);
+        }
+        for (int i = 0; i < 4000; i++) {
+            index.remove("s" + i);
+        }
+
+        assertEquals(1000, index.size());
+        assertEquals(1000, index.search("student", 1).total());
+        assertEquals(List.of("s4321"), ids(index.search("student 4321", 10)));
+    }
+}
@@ -0,0 +1,106 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.event.CourseChangedEvent;
+import com.codealpha.gradetracker.model.Course;
+import com.codealpha.gradetracker.repository.CourseRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseCacheTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @InjectMocks
+    private CourseCache courseCache;
+
+    private static Course course(String id, String code) {
+        return Course.builder().id(id).code(code).name("Course " + code).build();
+    }
+
+    @Test
+    void lookups_LoadCoursesOnce() {
+        when(courseRepository.findAll()).thenReturn(List.of(course("c1", "CS101"), course("c2", "MA201")));
+
+        assertEquals("c2", courseCache.findByCode("MA201").orElseThrow().getId());
+        assertTrue(courseCache.existsById("c1"));
+        assertFalse(courseCache.existsById("missing"));
+        assertEquals(1, courseCache.findAllById(List.of("c1", "missing", "c1")).size());
+        assertEquals("CS101", courseCache.findSummaries(List.of("c1")).get("c1").getCode());
+
+        verify(courseRepository, times(1)).findAll();
+    }
+
+    @Test
+    void onCourseChanged_ReloadsOnNextRead() {
+        when(courseRepository.findAll())
+                .thenReturn(List.of(course("c1", "CS101")))
+                .thenReturn(List.of(course("c1", "CS101"), course("c2", "MA201")));
+
+        assertEquals(1, courseCache.count());
+        courseCache.onCourseChanged(CourseChangedEvent.deleted("c9"));
+
+        assertEquals(2, courseCache.count());
+        assertTrue(courseCache.findById("c2").isPresent());
+        verify(courseRepository, times(2)).findAll();
+    }
+
+    @Test
+    void concurrentReadsAfterInvalidation_LoadOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(courseRepository.findAll())
+                .thenReturn(List.of(course("c1", "CS101")))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return List.of(course("c1", "CS101"), course("c2", "MA201"));
+                });
+
+        courseCache.initialize();
+        courseCache.onCourseChanged(CourseChangedEvent.deleted("c9"));
+
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Long>> counts = new ArrayList<>();
+            counts.add(readers.submit(courseCache::count));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                counts.add(readers.submit(courseCache::count));
+            }
+            release.countDown();
+            for (Future<Long> count : counts) {
+                assertEquals(2L, count.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+        verify(courseRepository, times(2)).findAll();
+    }
+
+    @Test
+    void returnedCourses_AreCopies() {
+        when(courseRepository.findAll()).thenReturn(List.of(course("c1", "CS101")));
+
+        courseCache.findById("c1").orElseThrow().setName("Changed");
+        courseCache.findAll().get(0).setCode("XX999");
+
+        assertEquals("Course CS101", courseCache.findByCode("CS101").orElseThrow().getName());
+        verify(courseRepository, times(1)).findAll();
+    }
+}
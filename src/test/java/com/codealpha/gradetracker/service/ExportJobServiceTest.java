@@ -0,0 +1,193 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.dto.ExportJobDTO;
+import com.codealpha.gradetracker.dto.ExportJobRequest;
+import com.codealpha.gradetracker.exception.ConflictException;
+import com.codealpha.gradetracker.exception.ResourceNotFoundException;
+import com.codealpha.gradetracker.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportJobServiceTest {
+
+    @Mock
+    private ExportService exportService;
+
+    @TempDir
+    Path directory;
+
+    private ExportJobService exportJobService;
+
+    @AfterEach
+    void tearDown() {
+        if (exportJobService != null) {
+            exportJobService.shutdown();
+        }
+    }
+
+    private ExportJobService service(int maxActivePerUser, long ttlMs) {
+        exportJobService = new ExportJobService(exportService, directory.toString(), 1, 10, maxActivePerUser, ttlMs);
+        return exportJobService;
+    }
+
+    private static ExportJobRequest request(ExportJobDTO.Type type) {
+        return ExportJobRequest.builder().type(type).build();
+    }
+
+    private ExportJobDTO awaitFinished(String id, String owner) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ExportJobDTO job = exportJobService.getJob(id, owner);
+            if (job.getStatus() == ExportJobDTO.Status.COMPLETED || job.getStatus() == ExportJobDTO.Status.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Export job did not finish");
+    }
+
+    @Test
+    void submit_WritesArtifactAndReportsProgress() throws Exception {
+        when(exportService.exportGradesToCSV())
+                .thenReturn(out -> out.write("ID,Score\ng1,90\n".getBytes(StandardCharsets.UTF_8)));
+        service(2, 60_000);
+
+        ExportJobDTO queued = exportJobService.submit(request(ExportJobDTO.Type.GRADES_CSV), "teacher");
+        ExportJobDTO done = awaitFinished(queued.getId(), "teacher");
+
+        assertEquals(ExportJobDTO.Status.COMPLETED, done.getStatus());
+        assertEquals(Long.valueOf(15), done.getBytesWritten());
+        assertEquals("/api/export/jobs/" + queued.getId() + "/download", done.getDownloadUrl());
+
+        ExportJobService.Artifact artifact = exportJobService.getArtifact(queued.getId(), "teacher");
+        assertEquals("ID,Score\ng1,90\n", Files.readString(artifact.path()));
+        assertEquals("text/csv", artifact.contentType());
+    }
+
+    @Test
+    void submit_FailedExportKeepsErrorAndNoArtifact() throws Exception {
+        when(exportService.exportStudentsToCSV()).thenReturn(out -> {
+            throw new IllegalStateException("cursor closed");
+        });
+        service(2, 60_000);
+
+        ExportJobDTO queued = exportJobService.submit(request(ExportJobDTO.Type.STUDENTS_CSV), "teacher");
+        ExportJobDTO done = awaitFinished(queued.getId(), "teacher");
+
+        assertEquals(ExportJobDTO.Status.FAILED, done.getStatus());
+        assertEquals("cursor closed", done.getError());
+        assertThrows(ConflictException.class, () -> exportJobService.getArtifact(queued.getId(), "teacher"));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void submit_RejectsJobsBeyondPerUserLimit() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(exportService.exportGradesToCSV()).thenReturn(out -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        service(1, 60_000);
+
+        ExportJobDTO first = exportJobService.submit(request(ExportJobDTO.Type.GRADES_CSV), "teacher");
+        assertThrows(TooManyRequestsException.class,
+                () -> exportJobService.submit(request(ExportJobDTO.Type.GRADES_CSV), "teacher"));
+        assertNotNull(exportJobService.submit(request(ExportJobDTO.Type.GRADES_CSV), "admin"));
+
+        release.countDown();
+        awaitFinished(first.getId(), "teacher");
+        assertNotNull(exportJobService.submit(request(ExportJobDTO.Type.GRADES_CSV), "teacher"));
+    }
+
+    @Test
+    void getJob_HidesOtherUsersJobs() throws Exception {
+        when(exportService.exportGradesToCSV()).thenReturn(out -> out.write('x'));
+        service(2, 60_000);
+
+        ExportJobDTO job = exportJobService.submit(request(ExportJobDTO.Type.GRADES_CSV), "teacher");
+
+        assertThrows(ResourceNotFoundException.class, () -> exportJobService.getJob(job.getId(), "someone-else"));
+        awaitFinished(job.getId(), "teacher");
+    }
+
+    @Test
+    void submit_StudentExportRequiresStudentId() {
+        service(2, 60_000);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> exportJobService.submit(request(ExportJobDTO.Type.STUDENT_GRADES_CSV), "teacher"));
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void sweep_RemovesExpiredJobsAndArtifacts() throws Exception {
+        when(exportService.exportGradesToCSV()).thenReturn(out -> out.write('x'));
+        service(2, 0);
+
+        ExportJobDTO job = exportJobService.submit(request(ExportJobDTO.Type.GRADES_CSV), "teacher");
+        awaitFinished(job.getId(), "teacher");
+        exportJobService.sweep();
+
+        assertThrows(ResourceNotFoundException.class, () -> exportJobService.getJob(job.getId(), "teacher"));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void startup_DeletesOnlyJobArtifacts() throws Exception {
+        FileTime stale = FileTime.from(Instant.now().minus(Duration.ofHours(2)));
+        Path leftover = Files.writeString(directory.resolve("0f8fad5b-d9cb-469f-a165-70867728950e.csv"), "x");
+        Path partial = Files.writeString(directory.resolve("7c9e6679-7425-40de-944b-e07fc1f90ae7.part"), "x");
+        Path unrelated = Files.writeString(directory.resolve("notes.csv"), "keep");
+        Files.setLastModifiedTime(leftover, stale);
+        Files.setLastModifiedTime(partial, stale);
+        Files.setLastModifiedTime(unrelated, stale);
+        // Written by another instance sharing the directory
+        Path fresh = Files.writeString(directory.resolve("9b2e4c1a-3f5d-4e6b-8a7c-1d2e3f4a5b6c.pdf"), "x");
+
+        service(2, 60_000);
+
+        assertFalse(Files.exists(leftover));
+        assertFalse(Files.exists(partial));
+        assertTrue(Files.exists(unrelated));
+        assertTrue(Files.exists(fresh));
+    }
+
+    @Test
+    void submit_IgnoresStudentIdForOtherExports() throws Exception {
+        when(exportService.exportGradesToCSV()).thenReturn(out -> out.write('x'));
+        service(2, 60_000);
+
+        ExportJobRequest request = ExportJobRequest.builder()
+                .type(ExportJobDTO.Type.GRADES_CSV)
+                .studentId("x\r\nSet-Cookie: a=b")
+                .build();
+        ExportJobDTO job = exportJobService.submit(request, "teacher");
+        awaitFinished(job.getId(), "teacher");
+
+        assertNull(job.getStudentId());
+        assertEquals("grades_csv.csv", exportJobService.getArtifact(job.getId(), "teacher").fileName());
+    }
+}
@@ -0,0 +1,140 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.model.GradeRollup;
+import com.codealpha.gradetracker.model.GradeRollup.Granularity;
+import com.codealpha.gradetracker.repository.GradeRepository;
+import com.codealpha.gradetracker.repository.GradeRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GradeRollupServiceTest {
+
+    @Mock
+    private GradeRepository gradeRepository;
+
+    @Mock
+    private GradeRollupRepository gradeRollupRepository;
+
+    @InjectMocks
+    private GradeRollupService gradeRollupService;
+
+    // Every requested bucket exists, so the result shows exactly which buckets were chosen
+    private void stubBuckets() {
+        when(gradeRollupRepository.findByGranularityAndBucketStartIn(any(), anyCollection()))
+                .thenAnswer(invocation -> buckets(invocation.getArgument(0), invocation.getArgument(1), null));
+    }
+
+    private static List<GradeRollup> buckets(Granularity granularity, Collection<LocalDate> starts, String courseId) {
+        return starts.stream()
+                .map(start -> GradeRollup.builder()
+                        .id(GradeRollup.idOf(granularity, start, courseId))
+                        .granularity(granularity)
+                        .bucketStart(start)
+                        .courseId(courseId)
+                        .build())
+                .toList();
+    }
+
+    private static LocalDate lastDay(GradeRollup bucket) {
+        return bucket.getGranularity().nextBucketStart(bucket.getBucketStart()).minusDays(1);
+    }
+
+    // The buckets, in order, start on from, end on to and each starts the day after the previous ends
+    private static void assertTiles(List<GradeRollup> buckets, LocalDate from, LocalDate to) {
+        List<GradeRollup> ordered = buckets.stream()
+                .sorted(Comparator.comparing(GradeRollup::getBucketStart))
+                .toList();
+        LocalDate next = from;
+        for (GradeRollup bucket : ordered) {
+            assertEquals(bucket.getGranularity().bucketStart(bucket.getBucketStart()), bucket.getBucketStart(),
+                    "bucket " + bucket.getId() + " is not aligned");
+            assertEquals(next, bucket.getBucketStart(), "gap or overlap before " + bucket.getId());
+            next = lastDay(bucket).plusDays(1);
+        }
+        assertEquals(to.plusDays(1), next, "buckets do not end on " + to);
+    }
+
+    private static long count(List<GradeRollup> buckets, Granularity granularity) {
+        return buckets.stream().filter(bucket -> bucket.getGranularity() == granularity).count();
+    }
+
+    @Test
+    void findCovering_MidWeekStart_UsesDaysUntilMonday() {
+        stubBuckets();
+        LocalDate from = LocalDate.of(2025, 3, 5);  // Wednesday
+        LocalDate to = LocalDate.of(2025, 3, 23);   // Sunday
+
+        List<GradeRollup> buckets = gradeRollupService.findCovering(from, to, null);
+
+        assertTiles(buckets, from, to);
+        assertEquals(5, count(buckets, Granularity.DAY));  // Wednesday to Sunday
+        assertEquals(2, count(buckets, Granularity.WEEK));
+    }
+
+    @Test
+    void findCovering_WeekStraddlingTermBoundary_IsSplitIntoDays() {
+        stubBuckets();
+        LocalDate from = LocalDate.of(2025, 6, 23); // Monday
+        LocalDate to = LocalDate.of(2025, 7, 13);   // Sunday; the week of June 30 crosses July 1
+
+        List<GradeRollup> buckets = gradeRollupService.findCovering(from, to, null);
+
+        assertTiles(buckets, from, to);
+        assertEquals(2, count(buckets, Granularity.WEEK));
+        assertEquals(7, count(buckets, Granularity.DAY));
+        for (GradeRollup bucket : buckets) {
+            assertEquals(Granularity.TERM.bucketStart(bucket.getBucketStart()), Granularity.TERM.bucketStart(lastDay(bucket)),
+                    bucket.getId() + " crosses a term boundary");
+        }
+    }
+
+    @Test
+    void findCovering_WholeTermAndMore_UsesTermBucket() {
+        stubBuckets();
+        LocalDate from = LocalDate.of(2024, 12, 30);
+        LocalDate to = LocalDate.of(2025, 7, 2);
+
+        List<GradeRollup> buckets = gradeRollupService.findCovering(from, to, null);
+
+        assertTiles(buckets, from, to);
+        assertEquals(1, count(buckets, Granularity.TERM));
+        assertEquals(4, count(buckets, Granularity.DAY));
+    }
+
+    @Test
+    void findCovering_SingleDay_UsesOneDayBucketForTheCourse() {
+        LocalDate day = LocalDate.of(2025, 3, 3); // A Monday, so a week also starts here
+        when(gradeRollupRepository.findByGranularityAndBucketStartInAndCourseId(any(), anyCollection(), eq("c1")))
+                .thenAnswer(invocation -> buckets(invocation.getArgument(0), invocation.getArgument(1), "c1"));
+
+        List<GradeRollup> buckets = gradeRollupService.findCovering(day, day, "c1");
+
+        assertTiles(buckets, day, day);
+        assertEquals(List.of(Granularity.DAY), buckets.stream().map(GradeRollup::getGranularity).toList());
+        verify(gradeRollupRepository, never()).findByGranularityAndBucketStartIn(any(), anyCollection());
+    }
+
+    @Test
+    void findCovering_FromAfterTo_ReturnsNothing() {
+        List<GradeRollup> buckets = gradeRollupService.findCovering(
+                LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 9), null);
+
+        assertTrue(buckets.isEmpty());
+        verifyNoInteractions(gradeRollupRepository);
+    }
+}
@@ -0,0 +1,75 @@
+package com.codealpha.gradetracker.service;
+
+import com.codealpha.gradetracker.model.Grade;
+import com.codealpha.gradetracker.repository.projection.CourseSummary;
+import com.codealpha.gradetracker.repository.projection.StudentSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportCardRendererTest {
+
+    private final ReportCardRenderer renderer = new ReportCardRenderer(2);
+
+    @AfterEach
+    void tearDown() {
+        renderer.shutdown();
+    }
+
+    private static ExportRow row(String studentId, double score) {
+        Grade grade = Grade.builder()
+                .id(studentId + "-" + score)
+                .studentId(studentId)
+                .courseId("c1")
+                .numericScore(score)
+                .gradeDate(LocalDate.of(2024, 5, 1))
+                .build();
+        StudentSummary student = new StudentSummary(studentId, "First", studentId, studentId + "@example.com", "E-" + studentId);
+        return new ExportRow(grade, student, new CourseSummary("c1", "Algorithms", "CS201"));
+    }
+
+    @Test
+    void zipWriter_WritesOneReportPerStudent() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written;
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            ReportCardRenderer.ZipWriter writer = renderer.zipWriter(zip);
+            for (String studentId : new String[]{"s1", "s2", "s3", "s4", "s5"}) {
+                writer.add(row(studentId, 91));
+                writer.add(row(studentId, 78));
+            }
+            written = writer.finish();
+        }
+
+        assertEquals(5, written);
+        Set<String> names = new HashSet<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                names.add(entry.getName());
+                String header = new String(zip.readNBytes(5), StandardCharsets.US_ASCII);
+                assertEquals("%PDF-", header);
+            }
+        }
+        assertEquals(Set.of("student_s1_report.pdf", "student_s2_report.pdf", "student_s3_report.pdf",
+                "student_s4_report.pdf", "student_s5_report.pdf"), names);
+    }
+
+    @Test
+    void zipWriter_WritesNothingWithoutRows() throws Exception {
+        try (ZipOutputStream zip = new ZipOutputStream(new ByteArrayOutputStream())) {
+            assertEquals(0, renderer.zipWriter(zip).finish());
+        }
+    }
+}
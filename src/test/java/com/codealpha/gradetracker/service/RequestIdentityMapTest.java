@@ -0,0 +1,65 @@
+package com.codealpha.gradetracker.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestIdentityMapTest {
+
+    private final RequestIdentityMap identityMap = new RequestIdentityMap();
+    private final List<Set<String>> loadedBatches = new ArrayList<>();
+
+    private final Function<Set<String>, Map<String, String>> loader = ids -> {
+        loadedBatches.add(Set.copyOf(ids));
+        Map<String, String> values = new HashMap<>();
+        ids.stream().filter(id -> !id.startsWith("missing")).forEach(id -> values.put(id, "name-" + id));
+        return values;
+    };
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getAll_LoadsEachIdOncePerRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        identityMap.getAll(String.class, List.of("s1", "missing"), loader);
+        Map<String, String> values = identityMap.getAll(String.class, List.of("s1", "s2", "missing"), loader);
+
+        assertEquals(Map.of("s1", "name-s1", "s2", "name-s2"), values);
+        assertEquals(List.of(Set.of("s1", "missing"), Set.of("s2")), loadedBatches);
+    }
+
+    @Test
+    void put_SeedsLaterLookupsAndRemoveForgetsThem() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        identityMap.put(String.class, "s1", "seeded");
+        assertEquals("seeded", identityMap.getAll(String.class, List.of("s1"), loader).get("s1"));
+        assertTrue(loadedBatches.isEmpty());
+
+        identityMap.remove(String.class, "s1");
+        assertEquals("name-s1", identityMap.getAll(String.class, List.of("s1"), loader).get("s1"));
+    }
+
+    @Test
+    void getAll_OutsideRequestAlwaysLoads() {
+        identityMap.getAll(String.class, List.of("s1"), loader);
+        identityMap.getAll(String.class, List.of("s1"), loader);
+
+        assertEquals(2, loadedBatches.size());
+    }
+}
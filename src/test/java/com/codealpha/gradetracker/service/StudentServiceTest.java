@@ -1,16 +1,25 @@
 package com.codealpha.gradetracker.service;
 
 import com.codealpha.gradetracker.dto.StudentDTO;
+import com.codealpha.gradetracker.event.StudentChangedEvent;
 import com.codealpha.gradetracker.model.Student;
 import com.codealpha.gradetracker.repository.GradeRepository;
 import com.codealpha.gradetracker.repository.StudentRepository;
+import com.codealpha.gradetracker.repository.projection.GradeAverage;
+import com.codealpha.gradetracker.search.TrigramIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,10 +35,17 @@ class StudentServiceTest {
     @Mock
     private GradeRepository gradeRepository;
 
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private StudentService studentService;
 
     private Student testStudent;
+    private Student otherStudent;
     private StudentDTO testStudentDTO;
 
     @BeforeEach
@@ -44,6 +60,14 @@ class StudentServiceTest {
                 .active(true)
                 .build();
 
+        otherStudent = Student.builder()
+                .id("507f1f77bcf86cd799439012")
+                .firstName("Jane")
+                .lastName("Roe")
+                .email("jane.roe@test.com")
+                .active(true)
+                .build();
+
         testStudentDTO = StudentDTO.builder()
                 .firstName("John")
                 .lastName("Doe")
@@ -57,13 +81,14 @@ class StudentServiceTest {
     void createStudent_Success() {
         when(studentRepository.existsByEmail(testStudentDTO.getEmail())).thenReturn(false);
         when(studentRepository.save(any(Student.class))).thenReturn(testStudent);
-        when(gradeRepository.findByStudentId(any())).thenReturn(java.util.Collections.emptyList());
+        when(gradeRepository.averageByStudentIds(any())).thenReturn(java.util.Collections.emptyList());
 
         StudentDTO result = studentService.createStudent(testStudentDTO);
 
         assertNotNull(result);
         assertEquals(testStudentDTO.getEmail(), result.getEmail());
         verify(studentRepository, times(1)).save(any(Student.class));
+        verify(eventPublisher).publishEvent(any(StudentChangedEvent.class));
     }
 
     @Test
@@ -80,7 +105,7 @@ class StudentServiceTest {
     @Test
     void getStudentById_Success() {
         when(studentRepository.findById("507f1f77bcf86cd799439011")).thenReturn(Optional.of(testStudent));
-        when(gradeRepository.findByStudentId(any())).thenReturn(java.util.Collections.emptyList());
+        when(gradeRepository.averageByStudentIds(any())).thenReturn(java.util.Collections.emptyList());
 
         StudentDTO result = studentService.getStudentById("507f1f77bcf86cd799439011");
 
@@ -96,4 +121,80 @@ class StudentServiceTest {
 
         verify(studentRepository, times(1)).delete(testStudent);
     }
+
+    @Test
+    void getAllStudents_Paged_UsesOneAggregationForPage() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(studentRepository.findAll(pageable))
+                .thenReturn(new PageImpl<>(List.of(testStudent, otherStudent), pageable, 2));
+        when(gradeRepository.averageByStudentIds(any()))
+                .thenReturn(List.of(new GradeAverage(testStudent.getId(), 85.0, 4L)));
+
+        Page<StudentDTO> result = studentService.getAllStudents(pageable);
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(Double.valueOf(85.0), result.getContent().get(0).getAverageGrade());
+        assertEquals(Integer.valueOf(4), result.getContent().get(0).getTotalGrades());
+        assertEquals("GOOD", result.getContent().get(0).getStatus());
+        assertNull(result.getContent().get(1).getAverageGrade());
+        assertEquals("NO_GRADES", result.getContent().get(1).getStatus());
+        verify(gradeRepository, times(1)).averageByStudentIds(any());
+        verify(gradeRepository, never()).findByStudentId(any());
+    }
+
+    @Test
+    void getAllStudents_WithFields_ProjectsAndSkipsAverages() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(studentRepository.findAllIncluding(pageable, java.util.Set.of("firstName", "email")))
+                .thenReturn(new PageImpl<>(List.of(testStudent), pageable, 1));
+
+        Page<StudentDTO> result = studentService.getAllStudents(pageable, "firstName,email");
+
+        assertEquals(testStudent.getEmail(), result.getContent().get(0).getEmail());
+        verify(studentRepository, never()).findAll(any(Pageable.class));
+        verify(gradeRepository, never()).averageByStudentIds(any());
+    }
+
+    @Test
+    void getStudentsByIds_ReturnsKnownStudentsInRequestOrder() {
+        List<String> ids = List.of(otherStudent.getId(), "missing", testStudent.getId(), otherStudent.getId());
+        when(studentRepository.findAllById(List.of(otherStudent.getId(), "missing", testStudent.getId())))
+                .thenReturn(List.of(testStudent, otherStudent));
+        when(gradeRepository.averageByStudentIds(any())).thenReturn(List.of());
+
+        List<StudentDTO> result = studentService.getStudentsByIds(ids);
+
+        assertEquals(List.of(otherStudent.getEmail(), testStudent.getEmail()),
+                result.stream().map(StudentDTO::getEmail).toList());
+        verify(gradeRepository, times(1)).averageByStudentIds(any());
+    }
+
+    @Test
+    void searchStudents_ReturnsRequestedPageInRankOrder() {
+        Pageable pageable = PageRequest.of(1, 1);
+        when(searchIndexService.searchStudents("john", 2)).thenReturn(new TrigramIndex.Result(3, List.of(
+                new TrigramIndex.Hit(otherStudent.getId(), 6),
+                new TrigramIndex.Hit(testStudent.getId(), 4))));
+        when(studentRepository.findAllById(List.of(testStudent.getId()))).thenReturn(List.of(testStudent));
+        when(gradeRepository.averageByStudentIds(any())).thenReturn(List.of());
+
+        Page<StudentDTO> result = studentService.searchStudents("john", pageable);
+
+        assertEquals(3, result.getTotalElements());
+        assertEquals(1, result.getContent().size());
+        assertEquals(testStudent.getEmail(), result.getContent().get(0).getEmail());
+    }
+
+    @Test
+    void searchStudents_PastResultLimit_ReturnsEmptyPageWithCappedTotal() {
+        Pageable pageable = PageRequest.of(100, 10);
+        when(searchIndexService.searchStudents("john", SearchIndexService.MAX_RESULTS))
+                .thenReturn(new TrigramIndex.Result(5000, List.of(new TrigramIndex.Hit(testStudent.getId(), 4))));
+
+        Page<StudentDTO> result = studentService.searchStudents("john", pageable);
+
+        assertTrue(result.getContent().isEmpty());
+        assertEquals(SearchIndexService.MAX_RESULTS, result.getTotalElements());
+        verifyNoInteractions(studentRepository);
+    }
 }
@@ -0,0 +1,53 @@
+package com.codealpha.gradetracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedRebuildTest {
+
+    private final Object lock = new Object();
+    private final AtomicLong version = new AtomicLong();
+    private final List<Integer> installed = new ArrayList<>();
+
+    @Test
+    void run_InstallsScanWhenNothingChanged() {
+        AtomicInteger scans = new AtomicInteger();
+
+        VersionedRebuild.run("test", lock, version::get, scans::incrementAndGet, installed::add);
+
+        assertEquals(List.of(1), installed);
+    }
+
+    @Test
+    void run_RescansWhenAGradeChangedDuringTheScan() {
+        AtomicInteger scans = new AtomicInteger();
+
+        VersionedRebuild.run("test", lock, version::get, () -> {
+            if (scans.incrementAndGet() == 1) {
+                // An event arrives while the first scan is reading the collection
+                version.incrementAndGet();
+            }
+            return scans.get();
+        }, installed::add);
+
+        assertEquals(List.of(2), installed);
+    }
+
+    @Test
+    void run_InstallsLastScanAfterMaxAttempts() {
+        AtomicInteger scans = new AtomicInteger();
+
+        VersionedRebuild.run("test", lock, version::get, () -> {
+            version.incrementAndGet();
+            return scans.incrementAndGet();
+        }, installed::add);
+
+        assertEquals(List.of(VersionedRebuild.MAX_ATTEMPTS), installed);
+    }
+}
@@ -0,0 +1,64 @@
+package com.codealpha.gradetracker.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankedLeaderboardTest {
+
+    @Test
+    void page_ReturnsHighestScoresFirstWithTiesById() {
+        RankedLeaderboard leaderboard = new RankedLeaderboard();
+        leaderboard.put("c", 80.0);
+        leaderboard.put("a", 95.0);
+        leaderboard.put("b", 80.0);
+        leaderboard.put("d", 60.0);
+
+        List<RankedLeaderboard.Entry> page = leaderboard.page(0, 10);
+
+        assertEquals(List.of("a", "b", "c", "d"), page.stream().map(RankedLeaderboard.Entry::id).toList());
+    }
+
+    @Test
+    void put_ExistingIdMovesToNewPosition() {
+        RankedLeaderboard leaderboard = new RankedLeaderboard();
+        leaderboard.put("a", 90.0);
+        leaderboard.put("b", 70.0);
+
+        leaderboard.put("b", 99.0);
+
+        assertEquals(2, leaderboard.size());
+        assertEquals(0, leaderboard.rankOf("b"));
+        assertEquals(1, leaderboard.rankOf("a"));
+    }
+
+    @Test
+    void page_HonoursOffsetAndLimit() {
+        RankedLeaderboard leaderboard = new RankedLeaderboard();
+        for (int i = 0; i < 50; i++) {
+            leaderboard.put(String.format("s%02d", i), i);
+        }
+
+        List<RankedLeaderboard.Entry> page = leaderboard.page(10, 5);
+
+        assertEquals(5, page.size());
+        assertEquals("s39", page.get(0).id());
+        assertEquals("s35", page.get(4).id());
+        assertTrue(leaderboard.page(50, 5).isEmpty());
+    }
+
+    @Test
+    void remove_DropsEntry() {
+        RankedLeaderboard leaderboard = new RankedLeaderboard();
+        leaderboard.put("a", 90.0);
+        leaderboard.put("b", 80.0);
+
+        assertTrue(leaderboard.remove("a"));
+        assertFalse(leaderboard.remove("a"));
+        assertEquals(-1, leaderboard.rankOf("a"));
+        assertEquals(0, leaderboard.rankOf("b"));
+        assertEquals(1, leaderboard.size());
+    }
+}
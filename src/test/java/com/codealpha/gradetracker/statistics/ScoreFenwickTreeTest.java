@@ -0,0 +1,61 @@
+package com.codealpha.gradetracker.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreFenwickTreeTest {
+
+    @Test
+    void countBetween_IsInclusiveOnBothEnds() {
+        ScoreFenwickTree tree = new ScoreFenwickTree();
+        tree.add(72.0, 1);
+        tree.add(78.5, 1);
+        tree.add(85.0, 1);
+        tree.add(85.01, 1);
+
+        assertEquals(3, tree.countBetween(72.0, 85.0));
+        assertEquals(4, tree.getTotal());
+    }
+
+    @Test
+    void add_NegativeDeltaRemovesEntries() {
+        ScoreFenwickTree tree = new ScoreFenwickTree();
+        tree.add(90.0, 1);
+        tree.add(90.0, 1);
+        tree.add(90.0, -1);
+
+        assertEquals(1, tree.countAt(90.0));
+        assertEquals(1, tree.getTotal());
+    }
+
+    @Test
+    void countBelow_MatchesLinearScan() {
+        Random random = new Random(7);
+        ScoreFenwickTree tree = new ScoreFenwickTree();
+        double[] scores = new double[1000];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = Math.round(random.nextDouble() * 10000) / 100.0;
+            tree.add(scores[i], 1);
+        }
+
+        for (double probe : new double[]{0.0, 12.34, 50.0, 72.0, 99.99, 100.0}) {
+            long expected = 0;
+            for (double score : scores) {
+                if (score < probe) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, tree.countBelow(probe), "below " + probe);
+        }
+    }
+
+    @Test
+    void bucketOf_ClampsOutOfRangeScores() {
+        assertEquals(0, ScoreFenwickTree.bucketOf(-5.0));
+        assertEquals(ScoreFenwickTree.BUCKETS - 1, ScoreFenwickTree.bucketOf(150.0));
+        assertEquals(7200, ScoreFenwickTree.bucketOf(72.0));
+    }
+}
@@ -0,0 +1,81 @@
+package com.codealpha.gradetracker.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreStatisticsTest {
+
+    @Test
+    void of_ComputesMomentsAndExtremes() {
+        ScoreStatistics stats = ScoreStatistics.of(90.0, 70.0, 80.0, 60.0);
+
+        assertEquals(4, stats.getCount());
+        assertEquals(75.0, stats.getMean(), 1e-9);
+        assertEquals(125.0, stats.getVariance(), 1e-9);
+        assertEquals(60.0, stats.getMin());
+        assertEquals(90.0, stats.getMax());
+        assertEquals(75.0, stats.getMedian(), 1e-9);
+    }
+
+    @Test
+    void of_CountsLetterDistribution() {
+        ScoreStatistics stats = ScoreStatistics.of(95.0, 90.0, 85.5, 72.0, 60.0, 59.99, 0.0);
+
+        assertEquals(2, stats.getLetterCount(ScoreStatistics.LETTER_A));
+        assertEquals(1, stats.getLetterCount(ScoreStatistics.LETTER_B));
+        assertEquals(1, stats.getLetterCount(ScoreStatistics.LETTER_C));
+        assertEquals(1, stats.getLetterCount(ScoreStatistics.LETTER_D));
+        assertEquals(2, stats.getLetterCount(ScoreStatistics.LETTER_F));
+        assertEquals(5, stats.getPassing());
+        assertEquals(2, stats.getFailing());
+    }
+
+    @Test
+    void orderStatistic_MatchesSortedScores() {
+        Random random = new Random(42);
+        double[] scores = new double[500];
+        for (int i = 0; i < scores.length; i++) {
+            // Clustered scores so that many land in the same whole-point bucket
+            scores[i] = 70 + random.nextInt(3) + Math.round(random.nextDouble() * 100) / 100.0;
+        }
+
+        ScoreStatistics stats = ScoreStatistics.of(scores);
+        double[] sorted = scores.clone();
+        Arrays.sort(sorted);
+
+        for (int rank = 0; rank < sorted.length; rank++) {
+            assertEquals(sorted[rank], stats.orderStatistic(rank));
+        }
+        assertEquals((sorted[249] + sorted[250]) / 2.0, stats.getMedian(), 1e-9);
+    }
+
+    @Test
+    void accumulator_WeightedScoresBehaveLikeRepeatedScores() {
+        ScoreStatistics weighted = ScoreStatistics.accumulator()
+                .add(50.0, 3)
+                .add(90.0, 1)
+                .add(10.0, 2)
+                .build();
+        ScoreStatistics repeated = ScoreStatistics.of(50.0, 50.0, 50.0, 90.0, 10.0, 10.0);
+
+        assertEquals(repeated.getCount(), weighted.getCount());
+        assertEquals(repeated.getMean(), weighted.getMean(), 1e-9);
+        assertEquals(repeated.getVariance(), weighted.getVariance(), 1e-9);
+        assertEquals(repeated.getMedian(), weighted.getMedian(), 1e-9);
+        assertEquals(repeated.quantile(0.9), weighted.quantile(0.9), 1e-9);
+    }
+
+    @Test
+    void emptyStatistics_ReturnNaN() {
+        ScoreStatistics stats = ScoreStatistics.of();
+
+        assertTrue(stats.isEmpty());
+        assertTrue(Double.isNaN(stats.getMean()));
+        assertTrue(Double.isNaN(stats.getMedian()));
+        assertTrue(Double.isNaN(stats.getMax()));
+    }
+}
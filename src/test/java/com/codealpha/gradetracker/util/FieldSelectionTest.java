@@ -0,0 +1,61 @@
+package com.codealpha.gradetracker.util;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldSelectionTest {
+
+    private static final Map<String, List<String>> SOURCES = Map.of(
+            "id", List.of(),
+            "name", List.of("firstName", "lastName"),
+            "score", List.of("numericScore"),
+            "status", List.of("numericScore"),
+            "average", List.of());
+
+    @JsonFilter(FieldSelection.FILTER_ID)
+    record Row(String id, String name, Double score) {
+    }
+
+    @Test
+    void parse_CollectsDocumentFieldsOfSelectedProperties() {
+        FieldSelection selection = FieldSelection.parse(" name, status ,score", SOURCES);
+
+        assertFalse(selection.isAll());
+        assertTrue(selection.includes("id"));
+        assertTrue(selection.includesAny("average", "status"));
+        assertFalse(selection.includes("average"));
+        assertEquals(Set.of("firstName", "lastName", "numericScore"), selection.getDocumentFields());
+    }
+
+    @Test
+    void parse_WithoutFieldsSelectsEverything() {
+        FieldSelection selection = FieldSelection.parse(" ", SOURCES);
+
+        assertTrue(selection.isAll());
+        assertTrue(selection.includes("average"));
+        assertNull(selection.getDocumentFields());
+    }
+
+    @Test
+    void parse_RejectsUnknownField() {
+        assertThrows(IllegalArgumentException.class, () -> FieldSelection.parse("name,password", SOURCES));
+    }
+
+    @Test
+    void filters_SerializeOnlySelectedPropertiesAndId() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Row row = new Row("r1", "Jane", 91.5);
+
+        assertEquals("{\"id\":\"r1\",\"score\":91.5}",
+                objectMapper.writer(FieldSelection.filters("score")).writeValueAsString(row));
+        assertEquals("{\"id\":\"r1\",\"name\":\"Jane\",\"score\":91.5}",
+                objectMapper.writer(FieldSelection.serializeAll()).writeValueAsString(row));
+    }
+}
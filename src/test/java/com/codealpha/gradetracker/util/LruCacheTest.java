@@ -0,0 +1,101 @@
+package com.codealpha.gradetracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruCacheTest {
+
+    private final List<Set<String>> loadedBatches = new ArrayList<>();
+
+    private final Function<Set<String>, Map<String, String>> loader = keys -> {
+        loadedBatches.add(Set.copyOf(keys));
+        Map<String, String> values = new HashMap<>();
+        keys.stream().filter(key -> !key.startsWith("missing")).forEach(key -> values.put(key, key.toUpperCase()));
+        return values;
+    };
+
+    @Test
+    void getAll_LoadsOnlyMissesInOneBatch() {
+        LruCache<String, String> cache = new LruCache<>(10);
+
+        cache.getAll(List.of("a", "b"), loader);
+        Map<String, String> values = cache.getAll(List.of("a", "b", "c", "missing"), loader);
+
+        assertEquals(Map.of("a", "A", "b", "B", "c", "C"), values);
+        assertEquals(List.of(Set.of("a", "b"), Set.of("c", "missing")), loadedBatches);
+        LruCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.hits());
+        assertEquals(4, stats.misses());
+        assertEquals(2, stats.loads());
+        assertEquals(3, stats.size());
+    }
+
+    @Test
+    void getAll_EvictsLeastRecentlyUsed() {
+        LruCache<String, String> cache = new LruCache<>(2);
+
+        cache.getAll(List.of("a", "b"), loader);
+        cache.getAll(List.of("a"), loader);
+        cache.getAll(List.of("c"), loader);
+        loadedBatches.clear();
+        cache.getAll(List.of("a", "b"), loader);
+
+        assertEquals(List.of(Set.of("b")), loadedBatches);
+        assertEquals(2, cache.getStats().evictions());
+    }
+
+    @Test
+    void invalidate_ReloadsKeyAndSkipsCachingConcurrentLoad() {
+        LruCache<String, String> cache = new LruCache<>(10);
+        cache.getAll(List.of("a"), loader);
+
+        cache.invalidate("a");
+        cache.getAll(List.of("a"), loader);
+        assertEquals(2, loadedBatches.size());
+
+        // A write landing while "b" is being loaded keeps the loaded value out of the cache
+        cache.getAll(List.of("b"), keys -> {
+            cache.invalidate("b");
+            return loader.apply(keys);
+        });
+        cache.getAll(List.of("b"), loader);
+        assertEquals(4, loadedBatches.size());
+    }
+
+    @Test
+    void invalidate_DuringLoad_SkipsOnlyThatKey() {
+        LruCache<String, String> cache = new LruCache<>(10);
+
+        // Writes to "b" and to an unrelated key keep "b" out, but "a" and "c" are still cached
+        cache.getAll(List.of("a", "b", "c"), keys -> {
+            cache.invalidate("b");
+            cache.invalidate("z");
+            return loader.apply(keys);
+        });
+        loadedBatches.clear();
+        cache.getAll(List.of("a", "b", "c"), loader);
+
+        assertEquals(List.of(Set.of("b")), loadedBatches);
+    }
+
+    @Test
+    void invalidateAll_DuringLoad_SkipsWholeBatch() {
+        LruCache<String, String> cache = new LruCache<>(10);
+
+        Map<String, String> values = cache.getAll(List.of("a", "b"), keys -> {
+            cache.invalidateAll();
+            return loader.apply(keys);
+        });
+
+        assertEquals(Map.of("a", "A", "b", "B"), values);
+        assertEquals(0, cache.getStats().size());
+    }
+}
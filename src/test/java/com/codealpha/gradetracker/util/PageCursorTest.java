@@ -0,0 +1,45 @@
+package com.codealpha.gradetracker.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void encode_RoundTripsThroughDecode() {
+        PageCursor cursor = new PageCursor("lastName", Sort.Direction.DESC, "O'Brien, Ann", "507f1f77bcf86cd799439011");
+
+        PageCursor decoded = PageCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void encode_IsUrlSafe() {
+        String token = new PageCursor("email", Sort.Direction.ASC, "??>>~~@test.com", "id").encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void decode_MalformedToken_ThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("YWJj")); // "abc"
+        String unknownDirection = new PageCursor("id", Sort.Direction.ASC, "a", "b").encode()
+                .replace("QVND", "VVBX"); // "ASC" -> "UPW"
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(unknownDirection));
+    }
+
+    @Test
+    void keysetField_ParsesFormattedValues() {
+        KeysetField<LocalDate> field = new KeysetField<>("gradeDate", date -> date, LocalDate::parse);
+        LocalDate date = LocalDate.of(2024, 2, 29);
+
+        assertEquals(date, field.parse(field.format(date)));
+        assertThrows(IllegalArgumentException.class, () -> field.parse("2024-13-01"));
+    }
+}
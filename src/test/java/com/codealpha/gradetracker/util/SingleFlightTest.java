@@ -0,0 +1,118 @@
+package com.codealpha.gradetracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void execute_ConcurrentCallsShareOneComputation() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            Future<Integer> leader = executor.submit(() -> flight.execute("stats", () -> {
+                loads.incrementAndGet();
+                started.countDown();
+                release.await();
+                return 42;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                followers.add(executor.submit(() -> flight.execute("stats", () -> {
+                    loads.incrementAndGet();
+                    return -1;
+                })));
+            }
+            // Give the followers time to attach to the in-flight computation
+            while (flight.getStats().coalesced() < 3) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertEquals(42, leader.get(5, TimeUnit.SECONDS));
+            for (Future<Integer> follower : followers) {
+                assertEquals(42, follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(1, flight.getStats().executions());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ReusesResultWithinFreshnessWindow() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.execute("stats", loads::incrementAndGet);
+        flight.execute("stats", loads::incrementAndGet);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, flight.getStats().freshHits());
+
+        flight.invalidateAll();
+        flight.execute("stats", loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void execute_PropagatesCheckedExceptionAndDoesNotCacheFailure() {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofMinutes(1));
+
+        assertThrows(IOException.class, () -> flight.execute("export", () -> {
+            throw new IOException("disk full");
+        }));
+
+        assertEquals("ok", flight.execute("export", () -> "ok"));
+    }
+
+    @Test
+    void execute_EvictsExpiredResults() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(Duration.ofMillis(20));
+
+        flight.execute("student-1", () -> 1);
+        flight.execute("student-2", () -> 2);
+        assertEquals(2, flight.getStats().retained());
+
+        Thread.sleep(40);
+        flight.execute("student-3", () -> 3);
+
+        assertEquals(1, flight.getStats().retained());
+    }
+
+    @Test
+    void execute_DoesNotRetainResultLoadedAcrossInvalidation() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.execute("stats", () -> {
+            // A write lands while the load is running
+            flight.invalidateAll();
+            return loads.incrementAndGet();
+        });
+        flight.execute("stats", loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, flight.getStats().freshHits());
+    }
+}